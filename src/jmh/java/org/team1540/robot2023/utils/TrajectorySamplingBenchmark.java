@@ -0,0 +1,114 @@
+package org.team1540.robot2023.utils;
+
+import com.pathplanner.lib.PathConstraints;
+import com.pathplanner.lib.PathPlanner;
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+import com.pathplanner.lib.controllers.PPHolonomicDriveController;
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Transform2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.wpilibj.DriverStation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.team1540.lib.util.TrajectorySampler;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times following the longest auto path on red, sampling every 20 ms, by mirroring a copy up front and sampling it the
+ * way PPSwerveControllerCommand does against sampling through a {@link TrajectorySampler}. Also times a whole follower
+ * cycle (sample and controller) across the 3 piece auto both ways. Setup checks the sampler agrees with PathPlanner's
+ * mirrored copy first. Run with ./gradlew jmh.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TrajectorySamplingBenchmark {
+    private static final double LOOP_TIME = 0.02;
+
+    private static final Transform2d ROBOT_ERROR = new Transform2d(new Translation2d(-0.05, 0.02), Rotation2d.fromDegrees(2));
+
+    private List<PathPlannerTrajectory> group;
+    private PathPlannerTrajectory longest;
+
+    @Setup
+    public void setup() {
+        group = PathPlanner.loadPathGroup("TopGrid3PieceTaxi", new PathConstraints(5, 3));
+        longest = group.get(0);
+        for (PathPlannerTrajectory trajectory : group) {
+            if (trajectory.getTotalTimeSeconds() > longest.getTotalTimeSeconds()) longest = trajectory;
+        }
+
+        PathPlannerTrajectory mirrored = PathPlannerTrajectory.transformTrajectoryForAlliance(longest, DriverStation.Alliance.Red);
+        TrajectorySampler sampler = new TrajectorySampler(longest, DriverStation.Alliance.Red);
+        for (double time = 0; time <= longest.getTotalTimeSeconds(); time += LOOP_TIME) {
+            PathPlannerState expected = (PathPlannerState) mirrored.sample(time);
+            PathPlannerState actual = sampler.sample(time);
+            double error = expected.poseMeters.getTranslation().getDistance(actual.poseMeters.getTranslation())
+                    + Math.abs(expected.holonomicRotation.minus(actual.holonomicRotation).getRadians());
+            if (error > 1e-6) {
+                throw new IllegalStateException("Sampler disagrees with PathPlanner at " + time + " s: " + expected + " vs " + actual);
+            }
+        }
+    }
+
+    @Benchmark
+    public void followMirroredCopy(Blackhole blackhole) {
+        Trajectory mirrored = PathPlannerTrajectory.transformTrajectoryForAlliance(longest, DriverStation.Alliance.Red);
+        for (double time = 0; time <= mirrored.getTotalTimeSeconds(); time += LOOP_TIME) {
+            blackhole.consume(mirrored.sample(time).poseMeters.getX());
+        }
+    }
+
+    @Benchmark
+    public void followSampler(Blackhole blackhole) {
+        TrajectorySampler sampler = new TrajectorySampler(longest, DriverStation.Alliance.Red);
+        for (double time = 0; time <= sampler.getTotalTimeSeconds(); time += LOOP_TIME) {
+            blackhole.consume(sampler.sample(time).poseMeters.getX());
+        }
+    }
+
+    @Benchmark
+    public void followAutoSearch(Blackhole blackhole) {
+        followAuto(blackhole, false);
+    }
+
+    @Benchmark
+    public void followAutoSampler(Blackhole blackhole) {
+        followAuto(blackhole, true);
+    }
+
+    /**
+     * Samples and runs the controller each loop like a path follower does
+     */
+    private void followAuto(Blackhole blackhole, boolean useSampler) {
+        PPHolonomicDriveController controller = new PPHolonomicDriveController(
+                new PIDController(5, 0, 0), new PIDController(5, 0, 0), new PIDController(2, 0, 0));
+        for (PathPlannerTrajectory trajectory : group) {
+            TrajectorySampler sampler = new TrajectorySampler(trajectory);
+            for (double time = 0; time <= trajectory.getTotalTimeSeconds(); time += LOOP_TIME) {
+                PathPlannerState desired = useSampler ? sampler.sample(time) : (PathPlannerState) trajectory.sample(time);
+                // Pretend the robot is a little behind the path so the controller has something to correct
+                Pose2d pose = desired.poseMeters.plus(ROBOT_ERROR);
+                blackhole.consume(controller.calculate(pose, desired).vxMetersPerSecond);
+            }
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package org.team1540.lib.util;
+
+import edu.wpi.first.wpilibj.DriverStation;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that hot code doesn't allocate more than it's allowed to each loop. Code calls {@link #start()} and
+ * {@link #stop(int, long)} around itself like with {@link LoopProfiler}, and every so many loops the average bytes
+ * allocated per call are checked against each budget, reporting an error for any that went over.
+ * <p>
+ * This is meant for running in sim, where nothing else is competing for the loop, and the tests use it to fail the
+ * build when a budget is over. Until it's enabled start() returns -1 and stop() does nothing. Timings nest, but an
+ * outer budget also pays for the reads the inner ones make.
+ */
+public class AllocationBudget {
+    private static final int MAX_BUDGETS = 32;
+
+    private static AllocationBudget instance;
+
+    private final String[] names = new String[MAX_BUDGETS];
+    private final long[] budgets = new long[MAX_BUDGETS];
+    private final long[] bytes = new long[MAX_BUDGETS];
+    private final long[] calls = new long[MAX_BUDGETS];
+    private int budgetCount = 0;
+
+    private com.sun.management.ThreadMXBean threadBean;
+    private long threadId;
+    private long readOverhead;
+    private int checkLoops;
+    private int loops = 0;
+
+    public static AllocationBudget getInstance() {
+        if (instance == null) {
+            instance = new AllocationBudget();
+        }
+        return instance;
+    }
+
+    private AllocationBudget() {
+    }
+
+    /**
+     * Starts checking allocations on the calling thread
+     *
+     * @param checkLoops how many loops to average over before each check
+     */
+    public void enable(int checkLoops) {
+        enable(checkLoops, Thread.currentThread());
+    }
+
+    /**
+     * Starts checking allocations on a thread that might not have started yet, like the robot thread in a test
+     *
+     * @param checkLoops how many loops to average over before each check
+     */
+    public void enable(int checkLoops, Thread thread) {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)
+                || !((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            DriverStation.reportWarning("Thread allocation counting isn't supported, not checking allocation budgets", false);
+            return;
+        }
+        threadBean = (com.sun.management.ThreadMXBean) bean;
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+        // A read costs the same on any thread, but it has to be measured on the thread doing the reading
+        long currentThread = Thread.currentThread().getId();
+        long first = threadBean.getThreadAllocatedBytes(currentThread);
+        readOverhead = threadBean.getThreadAllocatedBytes(currentThread) - first;
+        threadId = thread.getId();
+        this.checkLoops = checkLoops;
+    }
+
+    /**
+     * @return the id to check the code with, or -1 if there are already too many budgets
+     */
+    public int add(String name, long bytesPerCall) {
+        if (budgetCount == MAX_BUDGETS) return -1;
+        names[budgetCount] = name;
+        budgets[budgetCount] = bytesPerCall;
+        return budgetCount++;
+    }
+
+    /**
+     * @return what to pass to {@link #stop(int, long)}, or -1 if this isn't enabled
+     */
+    public long start() {
+        return threadBean == null ? -1 : threadBean.getThreadAllocatedBytes(threadId);
+    }
+
+    public void stop(int budget, long start) {
+        if (start < 0 || budget < 0) return;
+        bytes[budget] += threadBean.getThreadAllocatedBytes(threadId) - start - readOverhead;
+        calls[budget]++;
+    }
+
+    /**
+     * Call once per loop. Every checkLoops loops this reports each budget that was exceeded on average.
+     */
+    public void endLoop() {
+        if (threadBean == null || ++loops < checkLoops) return;
+        for (String violation : check()) {
+            DriverStation.reportError(violation, false);
+        }
+    }
+
+    /**
+     * Checks every budget against what was allocated since the last check and starts counting again. Only call this
+     * while the thread being checked isn't running any timed code.
+     *
+     * @return a message for each budget that was exceeded on average, which is empty if they were all met
+     */
+    public List<String> check() {
+        List<String> violations = new ArrayList<>();
+        for (int i = 0; i < budgetCount; i++) {
+            if (calls[i] == 0) continue;
+            long average = bytes[i] / calls[i];
+            if (average > budgets[i]) {
+                violations.add(names[i] + " allocated " + average + " bytes per call over " + calls[i]
+                        + " calls, its budget is " + budgets[i]);
+            }
+            bytes[i] = 0;
+            calls[i] = 0;
+        }
+        loops = 0;
+        return violations;
+    }
+}
@@ -0,0 +1,167 @@
+package org.team1540.lib.util;
+
+import edu.wpi.first.hal.AllianceStationID;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+
+/**
+ * What the driver station sent this loop: the mode, the alliance station, the match time and the joysticks. Nothing
+ * on the robot reads these, since the code already goes through DriverStation, but logging them is what lets a
+ * replay put the driver station back the way it was before each cycle.
+ */
+public class DriverStationInputs implements InputLog.LoggableInputs {
+    public static final String NAME = "DriverStation";
+    private static final int MAX_AXES = 12;
+    private static final int MAX_POVS = 12;
+
+    public boolean enabled = false;
+    public boolean autonomous = false;
+    public boolean test = false;
+    public boolean eStop = false;
+    public boolean fmsAttached = false;
+    public boolean dsAttached = false;
+    // 0-2 are red 1-3 and 3-5 are blue 1-3, the same order as AllianceStationID, or -1 if it isn't known
+    public int allianceStation = -1;
+    public double matchTime = -1;
+
+    public final int[] axisCounts;
+    public final double[][] axes;
+    public final int[] buttonCounts;
+    public final int[] buttons;
+    public final int[] povCounts;
+    public final double[][] povs;
+
+    private final String[] axisCountKeys;
+    private final String[] axesKeys;
+    private final String[] buttonCountKeys;
+    private final String[] buttonsKeys;
+    private final String[] povCountKeys;
+    private final String[] povsKeys;
+
+    public DriverStationInputs() {
+        // Ports that aren't plugged in only get logged once, since values are only logged when they change
+        int joystickPorts = DriverStation.kJoystickPorts;
+        axisCounts = new int[joystickPorts];
+        axes = new double[joystickPorts][MAX_AXES];
+        buttonCounts = new int[joystickPorts];
+        buttons = new int[joystickPorts];
+        povCounts = new int[joystickPorts];
+        povs = new double[joystickPorts][MAX_POVS];
+
+        axisCountKeys = new String[joystickPorts];
+        axesKeys = new String[joystickPorts];
+        buttonCountKeys = new String[joystickPorts];
+        buttonsKeys = new String[joystickPorts];
+        povCountKeys = new String[joystickPorts];
+        povsKeys = new String[joystickPorts];
+        for (int port = 0; port < joystickPorts; port++) {
+            axisCountKeys[port] = "joystick" + port + "/axisCount";
+            axesKeys[port] = "joystick" + port + "/axes";
+            buttonCountKeys[port] = "joystick" + port + "/buttonCount";
+            buttonsKeys[port] = "joystick" + port + "/buttons";
+            povCountKeys[port] = "joystick" + port + "/povCount";
+            povsKeys[port] = "joystick" + port + "/povs";
+        }
+    }
+
+    /**
+     * Reads what DriverStation got in its last refresh
+     */
+    public void update() {
+        enabled = DriverStation.isEnabled();
+        autonomous = DriverStation.isAutonomous();
+        test = DriverStation.isTest();
+        eStop = DriverStation.isEStopped();
+        fmsAttached = DriverStation.isFMSAttached();
+        dsAttached = DriverStation.isDSAttached();
+        DriverStation.Alliance alliance = DriverStation.getAlliance();
+        int location = DriverStation.getLocation();
+        allianceStation = alliance == DriverStation.Alliance.Invalid || location < 1
+                ? -1
+                : (alliance == DriverStation.Alliance.Red ? 0 : 3) + location - 1;
+        matchTime = DriverStation.getMatchTime();
+
+        for (int port = 0; port < axes.length; port++) {
+            axisCounts[port] = Math.min(DriverStation.getStickAxisCount(port), MAX_AXES);
+            for (int axis = 0; axis < MAX_AXES; axis++) {
+                axes[port][axis] = axis < axisCounts[port] ? DriverStation.getStickAxis(port, axis) : 0;
+            }
+            buttonCounts[port] = DriverStation.getStickButtonCount(port);
+            buttons[port] = DriverStation.getStickButtons(port);
+            povCounts[port] = Math.min(DriverStation.getStickPOVCount(port), MAX_POVS);
+            for (int pov = 0; pov < MAX_POVS; pov++) {
+                povs[port][pov] = pov < povCounts[port] ? DriverStation.getStickPOV(port, pov) : -1;
+            }
+        }
+    }
+
+    /**
+     * Sends these to the simulated driver station, which the robot code picks up on its next refresh
+     */
+    public void applyToSim() {
+        DriverStationSim.setEnabled(enabled);
+        DriverStationSim.setAutonomous(autonomous);
+        DriverStationSim.setTest(test);
+        DriverStationSim.setEStop(eStop);
+        DriverStationSim.setFmsAttached(fmsAttached);
+        DriverStationSim.setDsAttached(dsAttached);
+        if (allianceStation >= 0) {
+            DriverStationSim.setAllianceStationId(AllianceStationID.values()[allianceStation]);
+        }
+        DriverStationSim.setMatchTime(matchTime);
+
+        for (int port = 0; port < axes.length; port++) {
+            DriverStationSim.setJoystickAxisCount(port, axisCounts[port]);
+            for (int axis = 0; axis < axisCounts[port]; axis++) {
+                DriverStationSim.setJoystickAxis(port, axis, axes[port][axis]);
+            }
+            DriverStationSim.setJoystickButtonCount(port, buttonCounts[port]);
+            DriverStationSim.setJoystickButtons(port, buttons[port]);
+            DriverStationSim.setJoystickPOVCount(port, povCounts[port]);
+            for (int pov = 0; pov < povCounts[port]; pov++) {
+                DriverStationSim.setJoystickPOV(port, pov, (int) povs[port][pov]);
+            }
+        }
+        DriverStationSim.notifyNewData();
+    }
+
+    @Override
+    public void toLog(InputLog.Table table) {
+        table.put("enabled", enabled);
+        table.put("autonomous", autonomous);
+        table.put("test", test);
+        table.put("eStop", eStop);
+        table.put("fmsAttached", fmsAttached);
+        table.put("dsAttached", dsAttached);
+        table.put("allianceStation", allianceStation);
+        table.put("matchTime", matchTime);
+        for (int port = 0; port < axes.length; port++) {
+            table.put(axisCountKeys[port], axisCounts[port]);
+            table.put(axesKeys[port], axes[port]);
+            table.put(buttonCountKeys[port], buttonCounts[port]);
+            table.put(buttonsKeys[port], buttons[port]);
+            table.put(povCountKeys[port], povCounts[port]);
+            table.put(povsKeys[port], povs[port]);
+        }
+    }
+
+    @Override
+    public void fromLog(InputLog.Table table) {
+        enabled = table.get("enabled", enabled);
+        autonomous = table.get("autonomous", autonomous);
+        test = table.get("test", test);
+        eStop = table.get("eStop", eStop);
+        fmsAttached = table.get("fmsAttached", fmsAttached);
+        dsAttached = table.get("dsAttached", dsAttached);
+        allianceStation = (int) table.get("allianceStation", allianceStation);
+        matchTime = table.get("matchTime", matchTime);
+        for (int port = 0; port < axes.length; port++) {
+            axisCounts[port] = (int) table.get(axisCountKeys[port], axisCounts[port]);
+            table.get(axesKeys[port], axes[port]);
+            buttonCounts[port] = (int) table.get(buttonCountKeys[port], buttonCounts[port]);
+            buttons[port] = (int) table.get(buttonsKeys[port], buttons[port]);
+            povCounts[port] = (int) table.get(povCountKeys[port], povCounts[port]);
+            table.get(povsKeys[port], povs[port]);
+        }
+    }
+}
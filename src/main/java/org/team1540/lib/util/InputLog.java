@@ -0,0 +1,364 @@
+package org.team1540.lib.util;
+
+import edu.wpi.first.util.WPIUtilJNI;
+import edu.wpi.first.util.datalog.BooleanLogEntry;
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+import edu.wpi.first.util.datalog.DoubleArrayLogEntry;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.util.datalog.IntegerLogEntry;
+import edu.wpi.first.util.datalog.StringLogEntry;
+import edu.wpi.first.wpilibj.DataLogManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Every sensor reading the robot acts on goes through here. Each subsystem registers an inputs object along with the
+ * IO that fills it, and {@link #beginCycle()} reads every IO once at the start of the loop so everything that runs
+ * afterwards sees the same snapshot. On the robot each value is written to the DataLog as "IO:name/key" whenever it
+ * changes, all with the cycle's timestamp.
+ * <p>
+ * In replay the IO isn't called at all. Instead each cycle's inputs are filled from a recorded log, so the code after
+ * them runs the same way it did on the robot. Code that runs before robotPeriodic (the mode init and periodic
+ * methods) sees the previous cycle's inputs, both on the robot and in replay.
+ */
+public class InputLog {
+    private static final String PREFIX = "IO:";
+    private static final String CYCLE_ENTRY = PREFIX + "cycle";
+
+    private static InputLog instance;
+
+    private final List<Handle<?>> handles = new ArrayList<>();
+    private IntegerLogEntry cycleLog;
+    private volatile int cycle = 0;
+
+    // Only set in replay
+    private Map<String, Series> replaySeries = null;
+    private long[] replayCycleTimes = null;
+
+    public static InputLog getInstance() {
+        if (instance == null) {
+            instance = new InputLog();
+        }
+        return instance;
+    }
+
+    private InputLog() {
+    }
+
+    /**
+     * A set of sensor readings that can be written to and read back from the log
+     */
+    public interface LoggableInputs {
+        void toLog(Table table);
+
+        void fromLog(Table table);
+    }
+
+    /**
+     * Reads everything in the log, so it has to be called before anything registers
+     *
+     * @param path the .wpilog file recorded on the robot
+     */
+    public void startReplay(String path) {
+        DataLogReader reader;
+        try {
+            reader = new DataLogReader(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Couldn't read replay log " + path, e);
+        }
+        if (!reader.isValid()) throw new IllegalArgumentException(path + " is not a valid log file");
+
+        Map<Integer, Series> entries = new HashMap<>();
+        Map<String, Series> series = new HashMap<>();
+        for (DataLogRecord record : reader) {
+            if (record.isStart()) {
+                DataLogRecord.StartRecordData start = record.getStartData();
+                if (!start.name.startsWith(PREFIX)) continue;
+                Series entry = series.computeIfAbsent(start.name, name -> new Series(start.type));
+                entries.put(start.entry, entry);
+            } else if (!record.isControl()) {
+                Series entry = entries.get(record.getEntry());
+                if (entry != null) entry.add(record);
+            }
+        }
+
+        Series cycles = series.get(CYCLE_ENTRY);
+        if (cycles == null) throw new IllegalArgumentException(path + " doesn't have any logged inputs");
+        replayCycleTimes = new long[cycles.size];
+        System.arraycopy(cycles.times, 0, replayCycleTimes, 0, cycles.size);
+        replaySeries = series;
+        DataLogManager.log("Replaying " + replayCycleTimes.length + " cycles from " + path);
+    }
+
+    public boolean isReplaying() {
+        return replaySeries != null;
+    }
+
+    /**
+     * @return how many cycles the replay log has, or 0 if this isn't replaying
+     */
+    public int getReplayCycleCount() {
+        return replayCycleTimes == null ? 0 : replayCycleTimes.length;
+    }
+
+    /**
+     * @return how many cycles have started, which is also the index of the next one
+     */
+    public int getCycle() {
+        return cycle;
+    }
+
+    /**
+     * Adds a set of inputs to update each cycle. They're filled straight away, so code that runs before the first
+     * cycle sees real readings instead of zeros.
+     *
+     * @param name what the inputs are logged under, which must stay the same for old logs to replay
+     * @param io   reads the sensors into the inputs, only called on the robot
+     */
+    public <T extends LoggableInputs> void register(String name, T inputs, Consumer<T> io) {
+        Handle<T> handle = new Handle<>(name, inputs, io);
+        handles.add(handle);
+        if (isReplaying()) {
+            peek(cycle, inputs, handle.table);
+        } else {
+            io.accept(inputs);
+        }
+    }
+
+    /**
+     * Updates every set of inputs, from the sensors on the robot or from the log in replay. Call this once at the
+     * start of robotPeriodic.
+     */
+    public void beginCycle() {
+        if (isReplaying()) {
+            if (cycle >= replayCycleTimes.length) return;
+            long timestamp = replayCycleTimes[cycle];
+            for (int i = 0; i < handles.size(); i++) {
+                Handle<?> handle = handles.get(i);
+                handle.table.timestamp = timestamp;
+                handle.inputs.fromLog(handle.table);
+            }
+        } else {
+            long timestamp = WPIUtilJNI.now();
+            for (int i = 0; i < handles.size(); i++) {
+                Handle<?> handle = handles.get(i);
+                handle.update();
+                handle.table.timestamp = timestamp;
+                handle.inputs.toLog(handle.table);
+            }
+            if (cycleLog == null) cycleLog = new IntegerLogEntry(DataLogManager.getLog(), CYCLE_ENTRY);
+            cycleLog.append(cycle, timestamp);
+        }
+        cycle++;
+    }
+
+    /**
+     * Fills inputs with what was logged for any cycle, without touching the registered inputs. This is for the
+     * replay driver, which needs the driver station inputs before the cycle runs.
+     *
+     * @return false if this isn't replaying or the cycle is past the end of the log
+     */
+    public boolean peek(int cycle, LoggableInputs inputs, Table table) {
+        if (!isReplaying() || cycle >= replayCycleTimes.length) return false;
+        table.timestamp = replayCycleTimes[cycle];
+        inputs.fromLog(table);
+        return true;
+    }
+
+    /**
+     * @return a table to pass to {@link #peek}, which keeps its own place in the log
+     */
+    public Table newTable(String name) {
+        return new Table(name);
+    }
+
+    private class Handle<T extends LoggableInputs> {
+        final T inputs;
+        final Consumer<T> io;
+        final Table table;
+
+        Handle(String name, T inputs, Consumer<T> io) {
+            this.inputs = inputs;
+            this.io = io;
+            this.table = new Table(name);
+        }
+
+        void update() {
+            io.accept(inputs);
+        }
+    }
+
+    /**
+     * Where one set of inputs writes its values on the robot and reads them back in replay. Values are only written
+     * when they change, and reading one gives whatever was last written at or before this cycle.
+     */
+    public class Table {
+        private final String prefix;
+        private final Map<String, RecordedValue> recorded = new HashMap<>();
+        private final Map<String, Cursor> cursors = new HashMap<>();
+        private long timestamp;
+
+        private Table(String name) {
+            this.prefix = PREFIX + name + "/";
+        }
+
+        public void put(String key, double value) {
+            RecordedValue entry = recorded.get(key);
+            if (entry == null) {
+                entry = new RecordedValue(new DoubleLogEntry(DataLogManager.getLog(), prefix + key));
+                recorded.put(key, entry);
+            } else if (Double.doubleToLongBits(entry.lastDouble) == Double.doubleToLongBits(value)) {
+                return;
+            }
+            entry.lastDouble = value;
+            ((DoubleLogEntry) entry.entry).append(value, timestamp);
+        }
+
+        public void put(String key, boolean value) {
+            RecordedValue entry = recorded.get(key);
+            if (entry == null) {
+                entry = new RecordedValue(new BooleanLogEntry(DataLogManager.getLog(), prefix + key));
+                recorded.put(key, entry);
+            } else if (entry.lastBoolean == value) {
+                return;
+            }
+            entry.lastBoolean = value;
+            ((BooleanLogEntry) entry.entry).append(value, timestamp);
+        }
+
+        public void put(String key, String value) {
+            RecordedValue entry = recorded.get(key);
+            if (entry == null) {
+                entry = new RecordedValue(new StringLogEntry(DataLogManager.getLog(), prefix + key));
+                recorded.put(key, entry);
+            } else if (entry.lastString.equals(value)) {
+                return;
+            }
+            entry.lastString = value;
+            ((StringLogEntry) entry.entry).append(value, timestamp);
+        }
+
+        /**
+         * The array is copied to tell when it changes, so it should always be the same length
+         */
+        public void put(String key, double[] value) {
+            RecordedValue entry = recorded.get(key);
+            if (entry == null) {
+                entry = new RecordedValue(new DoubleArrayLogEntry(DataLogManager.getLog(), prefix + key));
+                entry.lastArray = new double[value.length];
+                recorded.put(key, entry);
+            } else if (Arrays.equals(entry.lastArray, value)) {
+                return;
+            }
+            if (entry.lastArray.length != value.length) entry.lastArray = new double[value.length];
+            System.arraycopy(value, 0, entry.lastArray, 0, value.length);
+            ((DoubleArrayLogEntry) entry.entry).append(value, timestamp);
+        }
+
+        public double get(String key, double defaultValue) {
+            Object value = replayValue(key);
+            return value instanceof Double ? (Double) value : defaultValue;
+        }
+
+        public boolean get(String key, boolean defaultValue) {
+            Object value = replayValue(key);
+            return value instanceof Boolean ? (Boolean) value : defaultValue;
+        }
+
+        public String get(String key, String defaultValue) {
+            Object value = replayValue(key);
+            return value instanceof String ? (String) value : defaultValue;
+        }
+
+        /**
+         * Copies the logged array into the given one, leaving it alone if nothing was logged. Extra values in either
+         * are ignored.
+         */
+        public void get(String key, double[] into) {
+            Object value = replayValue(key);
+            if (!(value instanceof double[])) return;
+            double[] array = (double[]) value;
+            System.arraycopy(array, 0, into, 0, Math.min(array.length, into.length));
+        }
+
+        private Object replayValue(String key) {
+            Cursor cursor = cursors.get(key);
+            if (cursor == null) {
+                cursor = new Cursor(replaySeries == null ? null : replaySeries.get(prefix + key));
+                cursors.put(key, cursor);
+            }
+            return cursor.valueAt(timestamp);
+        }
+    }
+
+    private static class RecordedValue {
+        final Object entry;
+        double lastDouble;
+        boolean lastBoolean;
+        String lastString = "";
+        double[] lastArray;
+
+        RecordedValue(Object entry) {
+            this.entry = entry;
+        }
+    }
+
+    /**
+     * Every value one entry had in the replay log, in the order they were logged
+     */
+    private static class Series {
+        final String type;
+        long[] times = new long[256];
+        Object[] values = new Object[256];
+        int size = 0;
+
+        Series(String type) {
+            this.type = type;
+        }
+
+        void add(DataLogRecord record) {
+            Object value;
+            switch (type) {
+                case "double": value = record.getDouble(); break;
+                case "boolean": value = record.getBoolean(); break;
+                case "string": value = record.getString(); break;
+                case "double[]": value = record.getDoubleArray(); break;
+                case "int64": value = record.getInteger(); break;
+                default: return;
+            }
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            times[size] = record.getTimestamp();
+            values[size] = value;
+            size++;
+        }
+    }
+
+    /**
+     * Walks forward through one series as the cycles go by. Cycles only ever go forward, so this never searches.
+     */
+    private static class Cursor {
+        private final Series series;
+        private int index = -1;
+
+        Cursor(Series series) {
+            this.series = series;
+        }
+
+        Object valueAt(long timestamp) {
+            if (series == null) return null;
+            while (index + 1 < series.size && series.times[index + 1] <= timestamp) index++;
+            return index >= 0 ? series.values[index] : null;
+        }
+    }
+}
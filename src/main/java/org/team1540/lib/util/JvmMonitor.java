@@ -0,0 +1,96 @@
+package org.team1540.lib.util;
+
+import edu.wpi.first.util.WPIUtilJNI;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.util.datalog.IntegerLogEntry;
+import edu.wpi.first.wpilibj.DataLogManager;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+/**
+ * Logs what the JVM is doing each loop to the DataLog: how many bytes the main thread allocated, the heap in use, and
+ * how many collections each garbage collector ran and for how long. Everything is logged with the same timestamp, so
+ * a loop overrun logged in the same loop lines up with it.
+ * <p>
+ * This doesn't allocate once it's running, apart from what getThreadAllocatedBytes allocates on Java 11, which is
+ * measured when this starts and taken out of each reading. Heap use comes from Runtime instead of the memory pool
+ * beans, since those make a new MemoryUsage every time they're read.
+ */
+public class JvmMonitor {
+    private final Runtime runtime = Runtime.getRuntime();
+    private final com.sun.management.ThreadMXBean threadBean;
+    private final long threadId = Thread.currentThread().getId();
+    private final long readOverhead;
+    private long lastAllocated;
+
+    private final GarbageCollectorMXBean[] collectors;
+    private final long[] lastCollectionCounts;
+    private final long[] lastCollectionTimes;
+
+    private final IntegerLogEntry allocatedLog = new IntegerLogEntry(DataLogManager.getLog(), "CUSTOM:jvm/allocatedBytes");
+    private final IntegerLogEntry heapUsedLog = new IntegerLogEntry(DataLogManager.getLog(), "CUSTOM:jvm/heapUsedBytes");
+    private final IntegerLogEntry[] collectionCountLogs;
+    private final DoubleLogEntry[] pauseLogs;
+
+    /**
+     * Must be made on the thread to measure allocations for, which is usually the main robot thread
+     */
+    public JvmMonitor() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemorySupported()) {
+            threadBean = (com.sun.management.ThreadMXBean) bean;
+            threadBean.setThreadAllocatedMemoryEnabled(true);
+            // Reading twice in a row measures what a read allocates by itself
+            long first = threadBean.getThreadAllocatedBytes(threadId);
+            readOverhead = threadBean.getThreadAllocatedBytes(threadId) - first;
+            lastAllocated = threadBean.getThreadAllocatedBytes(threadId);
+        } else {
+            DataLogManager.log("Thread allocation counting isn't supported, not logging allocated bytes");
+            threadBean = null;
+            readOverhead = 0;
+        }
+
+        List<GarbageCollectorMXBean> collectorBeans = ManagementFactory.getGarbageCollectorMXBeans();
+        collectors = collectorBeans.toArray(new GarbageCollectorMXBean[0]);
+        lastCollectionCounts = new long[collectors.length];
+        lastCollectionTimes = new long[collectors.length];
+        collectionCountLogs = new IntegerLogEntry[collectors.length];
+        pauseLogs = new DoubleLogEntry[collectors.length];
+        for (int i = 0; i < collectors.length; i++) {
+            lastCollectionCounts[i] = collectors[i].getCollectionCount();
+            lastCollectionTimes[i] = collectors[i].getCollectionTime();
+            String name = collectors[i].getName().replace(' ', '_');
+            collectionCountLogs[i] = new IntegerLogEntry(DataLogManager.getLog(), "CUSTOM:jvm/gc/" + name + "/collections");
+            pauseLogs[i] = new DoubleLogEntry(DataLogManager.getLog(), "CUSTOM:jvm/gc/" + name + "/pauseMs");
+        }
+    }
+
+    /**
+     * Logs everything since the last call. Call this once per loop, from the thread this was made on.
+     */
+    public void periodic() {
+        long timestamp = WPIUtilJNI.now();
+
+        if (threadBean != null) {
+            long allocated = threadBean.getThreadAllocatedBytes(threadId);
+            allocatedLog.append(Math.max(allocated - lastAllocated - readOverhead, 0), timestamp);
+            lastAllocated = allocated;
+        }
+        heapUsedLog.append(runtime.totalMemory() - runtime.freeMemory(), timestamp);
+
+        for (int i = 0; i < collectors.length; i++) {
+            long count = collectors[i].getCollectionCount();
+            if (count == lastCollectionCounts[i]) continue;
+            long time = collectors[i].getCollectionTime();
+            collectionCountLogs[i].append(count - lastCollectionCounts[i], timestamp);
+            // Collection time is only kept in whole milliseconds, and covers every collection since the last loop
+            pauseLogs[i].append(time - lastCollectionTimes[i], timestamp);
+            lastCollectionCounts[i] = count;
+            lastCollectionTimes[i] = time;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.team1540.lib.util;
+
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+
+import java.util.Arrays;
+
+/**
+ * Counts timings in fixed width buckets, with everything past the last bucket going in the last one. Safe to record
+ * from one thread and publish from another.
+ */
+public class LatencyHistogram {
+    private final double bucketWidthMs;
+    private final long[] counts;
+    private long total = 0;
+    private double sumMs = 0;
+    private double maxMs = 0;
+
+    public LatencyHistogram(double bucketWidthMs, int bucketCount) {
+        this.bucketWidthMs = bucketWidthMs;
+        this.counts = new long[bucketCount];
+    }
+
+    public synchronized void record(double ms) {
+        int bucket = (int) Math.min(Math.max(ms / bucketWidthMs, 0), counts.length - 1);
+        counts[bucket]++;
+        total++;
+        sumMs += ms;
+        maxMs = Math.max(maxMs, ms);
+    }
+
+    public synchronized long getCount() {
+        return total;
+    }
+
+    public synchronized double getMean() {
+        return total == 0 ? 0 : sumMs / total;
+    }
+
+    public synchronized double getMax() {
+        return maxMs;
+    }
+
+    /**
+     * @param percentile between 0 and 1
+     * @return the upper edge of the bucket the percentile falls in, so this overestimates by up to one bucket
+     */
+    public synchronized double getPercentile(double percentile) {
+        if (total == 0) return 0;
+        long target = (long) Math.ceil(percentile * total);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) return (i + 1) * bucketWidthMs;
+        }
+        return counts.length * bucketWidthMs;
+    }
+
+    public synchronized void reset() {
+        Arrays.fill(counts, 0);
+        total = 0;
+        sumMs = 0;
+        maxMs = 0;
+    }
+
+    public synchronized void publish(String key) {
+        double[] buckets = new double[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            buckets[i] = counts[i];
+        }
+        SmartDashboard.putNumberArray(key + "/buckets", buckets);
+        SmartDashboard.putNumber(key + "/bucketWidthMs", bucketWidthMs);
+        SmartDashboard.putNumber(key + "/count", total);
+        SmartDashboard.putNumber(key + "/meanMs", getMean());
+        SmartDashboard.putNumber(key + "/p50Ms", getPercentile(0.5));
+        SmartDashboard.putNumber(key + "/p95Ms", getPercentile(0.95));
+        SmartDashboard.putNumber(key + "/maxMs", maxMs);
+    }
+}
@@ -0,0 +1,86 @@
+package org.team1540.lib.util;
+
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the robot code in sim against a log recorded on the robot, as fast as the computer can go. Sim time is paused
+ * and stepped forward one loop at a time, and before each step the driver station is set to what it was for that
+ * cycle. The robot code runs the same as it did on the robot apart from anything that reads the clock, since sim time
+ * moves in exact loop periods. Once every cycle has run the program exits.
+ * <p>
+ * Run this with {@code REPLAY_LOG=path/to/log.wpilog ./gradlew simulateJava} and the sim GUI turned off, since the
+ * GUI's driver station would overwrite the replayed one.
+ */
+public class LogReplay {
+    private static final String PATH_VARIABLE = "REPLAY_LOG";
+
+    private static final Semaphore loopDone = new Semaphore(0);
+    private static volatile boolean running = false;
+
+    /**
+     * @return the log to replay, or null to run normally
+     */
+    public static String getPath() {
+        String path = System.getenv(PATH_VARIABLE);
+        return path == null || path.isEmpty() ? null : path;
+    }
+
+    /**
+     * Starts stepping sim time. {@link InputLog#startReplay(String)} has to have been called already.
+     *
+     * @param periodSeconds how far to step each loop, which should be the robot's loop period
+     */
+    public static void start(double periodSeconds) {
+        SimHooks.pauseTiming();
+        DriverStationSim.setDsAttached(true);
+        running = true;
+        Thread stepper = new Thread(() -> step(periodSeconds), "LogReplay");
+        stepper.setDaemon(true);
+        stepper.start();
+    }
+
+    /**
+     * Call at the end of robotPeriodic so the next cycle can start
+     */
+    public static void loopDone() {
+        if (running) loopDone.release();
+    }
+
+    private static void step(double periodSeconds) {
+        InputLog inputLog = InputLog.getInstance();
+        DriverStationInputs driverStation = new DriverStationInputs();
+        InputLog.Table driverStationTable = inputLog.newTable(DriverStationInputs.NAME);
+        int cycles = inputLog.getReplayCycleCount();
+        long start = System.nanoTime();
+        boolean started = false;
+
+        while (inputLog.getCycle() < cycles) {
+            if (inputLog.peek(inputLog.getCycle(), driverStation, driverStationTable)) {
+                driverStation.applyToSim();
+            }
+            SimHooks.stepTiming(periodSeconds);
+            try {
+                if (started) {
+                    // Stepping again before the loop finishes would skip a cycle, however long the loop takes
+                    loopDone.acquire();
+                } else {
+                    // The first loop isn't scheduled until the robot has started, so until then this steps again
+                    started = loopDone.tryAcquire(1, TimeUnit.SECONDS);
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        DataLogManager.log(String.format("Replayed %d cycles (%.1f s of robot time) in %.1f s",
+                cycles, cycles * periodSeconds, seconds));
+        DataLogManager.getLog().flush();
+        System.exit(0);
+    }
+}
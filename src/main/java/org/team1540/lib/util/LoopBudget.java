@@ -0,0 +1,101 @@
+package org.team1540.lib.util;
+
+import org.team1540.lib.util.TelemetryBus.DoubleSignal;
+import org.team1540.lib.util.TelemetryBus.Priority;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs work that can wait (telemetry, Field2d, the auto preview) with whatever time is left in the loop once the work
+ * that can't wait (odometry, control outputs) is done. Each task keeps a running average of how long it takes, and
+ * it's skipped for the loop if that's more than the time left. A skipped task runs again as soon as there's room, and
+ * always runs once it's been skipped for its max delay, so nothing falls too far behind during a long spike.
+ * <p>
+ * Deferred tasks run in the order they were added, so add the most important ones first.
+ */
+public class LoopBudget {
+    private static final double COST_SMOOTHING = 0.1;
+
+    private static LoopBudget instance;
+
+    private final List<Task> tasks = new ArrayList<>();
+    private long budgetNanos = 15_000_000;
+    private long loopStart = 0;
+
+    public static LoopBudget getInstance() {
+        if (instance == null) {
+            instance = new LoopBudget();
+        }
+        return instance;
+    }
+
+    private LoopBudget() {
+    }
+
+    /**
+     * @param seconds how long robotPeriodic can take before deferrable work starts being skipped
+     */
+    public void setBudget(double seconds) {
+        budgetNanos = (long) (seconds * 1e9);
+    }
+
+    /**
+     * @param maxDelaySeconds the longest the task can be skipped for before it runs anyway
+     */
+    public void addDeferrable(String name, Runnable work, double maxDelaySeconds) {
+        tasks.add(new Task(name, work, maxDelaySeconds));
+    }
+
+    public void beginLoop() {
+        loopStart = System.nanoTime();
+    }
+
+    /**
+     * @return how many seconds are left in this loop's budget, which is negative once it's over
+     */
+    public double getRemaining() {
+        return (loopStart + budgetNanos - System.nanoTime()) / 1e9;
+    }
+
+    /**
+     * Runs the deferrable tasks that fit in what's left of the budget, and any that have waited too long
+     */
+    public void runDeferred() {
+        long now = System.nanoTime();
+        for (Task task : tasks) {
+            long remaining = loopStart + budgetNanos - now;
+            if (task.costNanos > remaining && now - task.lastRun < task.maxDelayNanos) {
+                task.skipped++;
+                task.skippedSignal.set(task.skipped);
+                continue;
+            }
+
+            long start = LoopProfiler.getInstance().start();
+            task.work.run();
+            LoopProfiler.getInstance().stop(task.section, start);
+            long end = System.nanoTime();
+            long cost = end - now;
+            task.costNanos = task.lastRun == 0 ? cost : (long) (task.costNanos + COST_SMOOTHING * (cost - task.costNanos));
+            task.lastRun = end;
+            now = end;
+        }
+    }
+
+    private static class Task {
+        final Runnable work;
+        final long maxDelayNanos;
+        final int section;
+        final DoubleSignal skippedSignal;
+        long costNanos = 0;
+        long lastRun = 0;
+        long skipped = 0;
+
+        Task(String name, Runnable work, double maxDelaySeconds) {
+            this.work = work;
+            this.maxDelayNanos = (long) (maxDelaySeconds * 1e9);
+            this.section = LoopProfiler.getInstance().addSection(name);
+            this.skippedSignal = TelemetryBus.getInstance().addDouble("loopBudget/" + name + "/skipped", Priority.LOW, 1);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package org.team1540.lib.util;
+
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import org.team1540.lib.util.TelemetryBus.DoubleSignal;
+import org.team1540.lib.util.TelemetryBus.Priority;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Times named sections of the main loop and keeps a histogram of each one. Code being timed calls {@link #start()} and
+ * {@link #stop(int, long)} around itself. Time is added up per section over a loop and recorded when the loop ends, so a
+ * section that runs more than once a loop counts as one sample. Every second the p50, p99 and max of each section over
+ * that second are published and its histogram starts over, and any loop that goes over its budget is logged with how long each section took.
+ * <p>
+ * While disabled, start() returns 0 and stop() returns right away, so leaving the calls in costs next to nothing.
+ */
+public class LoopProfiler {
+    private static final int MAX_SECTIONS = 64;
+    private static final double PUBLISH_PERIOD_NANOS = 1e9;
+
+    private static LoopProfiler instance;
+
+    private final Section[] sections = new Section[MAX_SECTIONS];
+    private int sectionCount = 0;
+    private final Map<String, Integer> sectionsByName = new HashMap<>();
+
+    private final int[] touched = new int[MAX_SECTIONS];
+    private int touchedCount = 0;
+    private final StringBuilder breakdown = new StringBuilder();
+
+    private boolean enabled = false;
+    private long loopBudgetNanos = 20_000_000;
+    private long loopStart = 0;
+    private long lastPublish = 0;
+    private long commandMark = 0;
+
+    public static LoopProfiler getInstance() {
+        if (instance == null) {
+            instance = new LoopProfiler();
+        }
+        return instance;
+    }
+
+    private LoopProfiler() {
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setLoopBudget(double seconds) {
+        loopBudgetNanos = (long) (seconds * 1e9);
+    }
+
+    /**
+     * @return the id to time the section with, or -1 if there are already too many sections
+     */
+    public int addSection(String name) {
+        Integer existing = sectionsByName.get(name);
+        if (existing != null) return existing;
+        if (sectionCount == MAX_SECTIONS) {
+            DataLogManager.log("LoopProfiler is out of sections, not timing " + name);
+            // Remembered so a command that keeps running only gets logged once
+            sectionsByName.put(name, -1);
+            return -1;
+        }
+        sections[sectionCount] = new Section(name);
+        sectionsByName.put(name, sectionCount);
+        return sectionCount++;
+    }
+
+    /**
+     * Times each scheduled command. The scheduler has no hook right before a command runs, so each command's time is
+     * from the end of the last command (or the button loop) to the end of its execute(), and the time its
+     * isFinished() and end() take when it finishes. That means a command's time also includes the isFinished() of
+     * the command that ran before it. Commands are timed by name, so ones with the same name share a section.
+     */
+    public void profileCommands() {
+        // Bound after every trigger, so this runs right before the scheduler starts on the commands
+        CommandScheduler.getInstance().getDefaultButtonLoop().bind(() -> commandMark = start());
+        CommandScheduler.getInstance().onCommandExecute(this::markCommand);
+        CommandScheduler.getInstance().onCommandFinish(this::markCommand);
+    }
+
+    private void markCommand(Command command) {
+        if (!enabled || commandMark == 0) return;
+        commandMark = stop(addSection(command.getName()), commandMark);
+    }
+
+    public void beginLoop() {
+        loopStart = start();
+    }
+
+    /**
+     * @return the time to pass to {@link #stop(int, long)}, or 0 if the profiler is disabled
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Adds the time since start to the section
+     *
+     * @return the current time, so the next section can start from it
+     */
+    public long stop(int section, long start) {
+        if (start == 0 || section < 0) return 0;
+        long now = System.nanoTime();
+        Section timed = sections[section];
+        if (timed.loopNanos == 0) touched[touchedCount++] = section;
+        timed.loopNanos += Math.max(now - start, 1);
+        return now;
+    }
+
+    /**
+     * Records the time each section took this loop, logs the loop if it went over budget and publishes at a low rate
+     */
+    public void endLoop() {
+        if (loopStart == 0) {
+            clearLoop();
+            return;
+        }
+        long now = System.nanoTime();
+        long loopNanos = now - loopStart;
+        loopStart = 0;
+
+        if (loopNanos > loopBudgetNanos) {
+            breakdown.setLength(0);
+            breakdown.append("Loop overrun: ").append(loopNanos / 1000 / 1000.0).append(" ms");
+            for (int i = 0; i < touchedCount; i++) {
+                Section section = sections[touched[i]];
+                breakdown.append(i == 0 ? " (" : ", ").append(section.name).append(' ')
+                        .append(section.loopNanos / 1000 / 1000.0).append(" ms");
+            }
+            if (touchedCount > 0) breakdown.append(')');
+            DataLogManager.log(breakdown.toString());
+        }
+        clearLoop();
+
+        if (now - lastPublish >= PUBLISH_PERIOD_NANOS) {
+            lastPublish = now;
+            for (int i = 0; i < sectionCount; i++) {
+                sections[i].publish();
+            }
+        }
+    }
+
+    private void clearLoop() {
+        for (int i = 0; i < touchedCount; i++) {
+            Section section = sections[touched[i]];
+            section.histogram.record(section.loopNanos / 1000);
+            section.loopNanos = 0;
+        }
+        touchedCount = 0;
+    }
+
+    private static class Section {
+        final String name;
+        final LogLinearHistogram histogram = new LogLinearHistogram();
+        final DoubleSignal p50Signal;
+        final DoubleSignal p99Signal;
+        final DoubleSignal maxSignal;
+        long loopNanos = 0;
+
+        Section(String name) {
+            this.name = name;
+            p50Signal = TelemetryBus.getInstance().addDouble("profiler/" + name + "/p50Ms", Priority.LOW, 1);
+            p99Signal = TelemetryBus.getInstance().addDouble("profiler/" + name + "/p99Ms", Priority.LOW, 1);
+            maxSignal = TelemetryBus.getInstance().addDouble("profiler/" + name + "/maxMs", Priority.LOW, 1);
+        }
+
+        void publish() {
+            if (histogram.total == 0) return;
+            p50Signal.set(histogram.getPercentile(0.5) / 1000.0);
+            p99Signal.set(histogram.getPercentile(0.99) / 1000.0);
+            maxSignal.set(histogram.max / 1000.0);
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Microsecond timings in buckets that get wider as the values get bigger, like HdrHistogram. Values under 16 us get
+     * a bucket each, and past that every power of two is split into 8 buckets, so a percentile is never off by more
+     * than an eighth. Anything over about two seconds goes in the last bucket.
+     */
+    static class LogLinearHistogram {
+        private static final int LINEAR_BUCKETS = 16;
+        private static final int SUB_BUCKETS = 8;
+        private static final int MAX_SHIFT = 17;
+
+        final long[] counts = new long[LINEAR_BUCKETS + MAX_SHIFT * SUB_BUCKETS];
+        long total = 0;
+        long max = 0;
+
+        void record(long micros) {
+            counts[index(micros)]++;
+            total++;
+            max = Math.max(max, micros);
+        }
+
+        void reset() {
+            Arrays.fill(counts, 0);
+            total = 0;
+            max = 0;
+        }
+
+        /**
+         * @return the upper edge of the bucket the percentile falls in, in microseconds
+         */
+        long getPercentile(double percentile) {
+            long target = (long) Math.ceil(percentile * total);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) return Math.min(upperEdge(i), max);
+            }
+            return max;
+        }
+
+        static int index(long micros) {
+            if (micros < LINEAR_BUCKETS) return (int) Math.max(micros, 0);
+            int shift = 64 - Long.numberOfLeadingZeros(micros) - 4;
+            if (shift > MAX_SHIFT) return LINEAR_BUCKETS + MAX_SHIFT * SUB_BUCKETS - 1;
+            return LINEAR_BUCKETS + (shift - 1) * SUB_BUCKETS + (int) (micros >> shift) - SUB_BUCKETS;
+        }
+
+        static long upperEdge(int index) {
+            if (index < LINEAR_BUCKETS) return index;
+            int shift = (index - LINEAR_BUCKETS) / SUB_BUCKETS + 1;
+            long subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS + SUB_BUCKETS;
+            return ((subBucket + 1) << shift) - 1;
+        }
+    }
+}
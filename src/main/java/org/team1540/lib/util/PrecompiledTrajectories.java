@@ -0,0 +1,176 @@
+package org.team1540.lib.util;
+
+import com.pathplanner.lib.PathConstraints;
+import com.pathplanner.lib.PathPlanner;
+import com.pathplanner.lib.PathPlannerTrajectory;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.Filesystem;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Loads PathPlanner trajectories that were generated at build time instead of generating them on the roboRIO. Each
+ * path group is stored as a flat list of sampled states, so loading one is just reading doubles out of a memory
+ * mapped file. If a file is missing or was generated from an older version of the .path file, this falls back to
+ * generating the trajectory like normal.
+ * <p>
+ * File layout: magic, version, CRC32 of the .path file, trajectory count, then for each trajectory a state count
+ * followed by {@value #DOUBLES_PER_STATE} doubles per state.
+ */
+public class PrecompiledTrajectories {
+    public static final String DIRECTORY = "trajectories";
+    private static final int MAGIC = 0x50505442; // "PPTB"
+    private static final int VERSION = 1;
+    private static final int DOUBLES_PER_STATE = 10;
+
+    public static PathPlannerTrajectory loadPath(String name, PathConstraints constraints) {
+        List<PathPlannerTrajectory> trajectories = load(name, false, constraints);
+        if (trajectories != null) return trajectories.get(0);
+        return PathPlanner.loadPath(name, constraints);
+    }
+
+    public static List<PathPlannerTrajectory> loadPathGroup(String name, PathConstraints constraints, PathConstraints... otherConstraints) {
+        PathConstraints[] allConstraints = new PathConstraints[otherConstraints.length + 1];
+        allConstraints[0] = constraints;
+        System.arraycopy(otherConstraints, 0, allConstraints, 1, otherConstraints.length);
+        List<PathPlannerTrajectory> trajectories = load(name, true, allConstraints);
+        if (trajectories != null) return trajectories;
+        return PathPlanner.loadPathGroup(name, constraints, otherConstraints);
+    }
+
+    /**
+     * @return the file a path with these constraints is stored in, relative to the deploy directory
+     */
+    public static String getFileName(String name, boolean isGroup, PathConstraints... constraints) {
+        StringBuilder fileName = new StringBuilder(DIRECTORY).append('/').append(name);
+        if (isGroup) fileName.append("_group");
+        for (PathConstraints constraint : constraints) {
+            fileName.append('_').append(constraint.maxVelocity).append('-').append(constraint.maxAcceleration);
+        }
+        return fileName.append(".traj").toString();
+    }
+
+    public static long getPathChecksum(File deployDirectory, String name) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(Files.readAllBytes(new File(deployDirectory, "pathplanner/" + name + ".path").toPath()));
+        return crc.getValue();
+    }
+
+    /**
+     * Checks a precompiled file's header without reading the trajectories, so the build can tell whether the files are
+     * current without needing to generate them.
+     *
+     * @param fileName the file, relative to the deploy directory
+     * @return whether the file exists, has the current format, and was generated from the current .path file
+     */
+    public static boolean isUpToDate(File deployDirectory, String fileName, String name) throws IOException {
+        File file = new File(deployDirectory, fileName);
+        if (!file.exists()) return false;
+        try (DataInputStream input = new DataInputStream(new FileInputStream(file))) {
+            return input.readInt() == MAGIC
+                    && input.readInt() == VERSION
+                    && input.readLong() == getPathChecksum(deployDirectory, name);
+        } catch (EOFException e) {
+            return false;
+        }
+    }
+
+    private static List<PathPlannerTrajectory> load(String name, boolean isGroup, PathConstraints... constraints) {
+        File deployDirectory = Filesystem.getDeployDirectory();
+        File file = new File(deployDirectory, getFileName(name, isGroup, constraints));
+        if (!file.exists()) {
+            DataLogManager.log("No precompiled trajectory " + file.getName() + ", generating it");
+            return null;
+        }
+        try (RandomAccessFile input = new RandomAccessFile(file, "r"); FileChannel channel = input.getChannel()) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                DataLogManager.log("Precompiled trajectory " + file.getName() + " has the wrong format, generating it");
+                return null;
+            }
+            if (buffer.getLong() != getPathChecksum(deployDirectory, name)) {
+                DataLogManager.log("Precompiled trajectory " + file.getName() + " is out of date, generating it");
+                return null;
+            }
+            return read(buffer);
+        } catch (IOException e) {
+            DataLogManager.log("Couldn't read precompiled trajectory " + file.getName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static List<PathPlannerTrajectory> read(ByteBuffer buffer) {
+        int trajectoryCount = buffer.getInt();
+        List<PathPlannerTrajectory> trajectories = new ArrayList<>(trajectoryCount);
+        for (int i = 0; i < trajectoryCount; i++) {
+            int stateCount = buffer.getInt();
+            List<Trajectory.State> states = new ArrayList<>(stateCount);
+            for (int j = 0; j < stateCount; j++) {
+                PathPlannerTrajectory.PathPlannerState state = new PathPlannerTrajectory.PathPlannerState();
+                state.timeSeconds = buffer.getDouble();
+                double x = buffer.getDouble();
+                double y = buffer.getDouble();
+                state.poseMeters = new Pose2d(x, y, new Rotation2d(buffer.getDouble()));
+                state.velocityMetersPerSecond = buffer.getDouble();
+                state.accelerationMetersPerSecondSq = buffer.getDouble();
+                state.curvatureRadPerMeter = buffer.getDouble();
+                state.angularVelocityRadPerSec = buffer.getDouble();
+                state.holonomicRotation = new Rotation2d(buffer.getDouble());
+                state.holonomicAngularVelocityRadPerSec = buffer.getDouble();
+                states.add(state);
+            }
+            trajectories.add(new PathPlannerTrajectory(
+                    states,
+                    new ArrayList<>(),
+                    new PathPlannerTrajectory.StopEvent(),
+                    new PathPlannerTrajectory.StopEvent(),
+                    true
+            ));
+        }
+        return trajectories;
+    }
+
+    public static void write(Path file, long pathChecksum, List<PathPlannerTrajectory> trajectories) throws IOException {
+        int size = 4 + 4 + 8 + 4;
+        for (PathPlannerTrajectory trajectory : trajectories) {
+            size += 4 + trajectory.getStates().size() * DOUBLES_PER_STATE * 8;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).putInt(VERSION).putLong(pathChecksum).putInt(trajectories.size());
+        for (PathPlannerTrajectory trajectory : trajectories) {
+            buffer.putInt(trajectory.getStates().size());
+            for (Trajectory.State s : trajectory.getStates()) {
+                PathPlannerTrajectory.PathPlannerState state = (PathPlannerTrajectory.PathPlannerState) s;
+                buffer.putDouble(state.timeSeconds);
+                buffer.putDouble(state.poseMeters.getX());
+                buffer.putDouble(state.poseMeters.getY());
+                buffer.putDouble(state.poseMeters.getRotation().getRadians());
+                buffer.putDouble(state.velocityMetersPerSecond);
+                buffer.putDouble(state.accelerationMetersPerSecondSq);
+                buffer.putDouble(state.curvatureRadPerMeter);
+                buffer.putDouble(state.angularVelocityRadPerSec);
+                buffer.putDouble(state.holonomicRotation.getRadians());
+                buffer.putDouble(state.holonomicAngularVelocityRadPerSec);
+            }
+        }
+        Files.createDirectories(file.getParent());
+        Files.write(file, buffer.array(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+    }
+}
@@ -0,0 +1,154 @@
+package org.team1540.lib.util;
+
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.Timer;
+
+/**
+ * A replacement for System.out.println in code that runs every loop. Each place that logs makes its own {@link Site}
+ * with a name and how often it can log, and anything logged more often than that is counted and dropped. Messages
+ * are templates with {} where each number goes, and nothing is formatted on the calling thread: the template and
+ * numbers are copied into a preallocated queue and a background thread formats them and writes them with
+ * DataLogManager.log, which puts them in the DataLog and on the console.
+ */
+public class RateLimitedLog {
+    private static final int QUEUE_SIZE = 64;
+
+    private static final Record[] queue = new Record[QUEUE_SIZE];
+    private static int head = 0;
+    private static int size = 0;
+    private static long dropped = 0;
+
+    static {
+        for (int i = 0; i < QUEUE_SIZE; i++) {
+            queue[i] = new Record();
+        }
+        Thread writer = new Thread(RateLimitedLog::write, "RateLimitedLog");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * @param minPeriodSeconds the shortest time between two messages from this site
+     */
+    public static Site site(String name, double minPeriodSeconds) {
+        return new Site(name, minPeriodSeconds);
+    }
+
+    public static class Site {
+        private final String name;
+        private final long minPeriodNanos;
+        private long lastLogged = 0;
+        private boolean hasLogged = false;
+        private long suppressed = 0;
+
+        private Site(String name, double minPeriodSeconds) {
+            this.name = name;
+            this.minPeriodNanos = (long) (minPeriodSeconds * 1e9);
+        }
+
+        public void log(String message) {
+            if (allowed()) enqueue(this, message, 0, 0, 0, 0);
+        }
+
+        public void log(String template, double a) {
+            if (allowed()) enqueue(this, template, 1, a, 0, 0);
+        }
+
+        public void log(String template, double a, double b) {
+            if (allowed()) enqueue(this, template, 2, a, b, 0);
+        }
+
+        public void log(String template, double a, double b, double c) {
+            if (allowed()) enqueue(this, template, 3, a, b, c);
+        }
+
+        private boolean allowed() {
+            long now = System.nanoTime();
+            if (hasLogged && now - lastLogged < minPeriodNanos) {
+                suppressed++;
+                return false;
+            }
+            hasLogged = true;
+            lastLogged = now;
+            return true;
+        }
+    }
+
+    private static synchronized void enqueue(Site site, String template, int argCount, double a, double b, double c) {
+        if (size == QUEUE_SIZE) {
+            dropped++;
+            return;
+        }
+        Record record = queue[(head + size) % QUEUE_SIZE];
+        record.site = site;
+        record.template = template;
+        record.argCount = argCount;
+        record.args[0] = a;
+        record.args[1] = b;
+        record.args[2] = c;
+        record.timestamp = Timer.getFPGATimestamp();
+        record.suppressed = site.suppressed;
+        site.suppressed = 0;
+        size++;
+        RateLimitedLog.class.notifyAll();
+    }
+
+    private static void write() {
+        Record record = new Record();
+        StringBuilder builder = new StringBuilder();
+        while (true) {
+            long droppedNow;
+            synchronized (RateLimitedLog.class) {
+                while (size == 0) {
+                    try {
+                        RateLimitedLog.class.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                record.copyFrom(queue[head]);
+                head = (head + 1) % QUEUE_SIZE;
+                size--;
+                droppedNow = dropped;
+                dropped = 0;
+            }
+
+            builder.setLength(0);
+            builder.append(String.format("[%.3f] [", record.timestamp)).append(record.site.name).append("] ");
+            format(builder, record);
+            if (record.suppressed > 0) builder.append(" (").append(record.suppressed).append(" more suppressed)");
+            if (droppedNow > 0) builder.append(" (").append(droppedNow).append(" messages dropped, queue was full)");
+            DataLogManager.log(builder.toString());
+        }
+    }
+
+    private static void format(StringBuilder builder, Record record) {
+        String template = record.template;
+        int arg = 0;
+        int from = 0;
+        int placeholder;
+        while (arg < record.argCount && (placeholder = template.indexOf("{}", from)) >= 0) {
+            builder.append(template, from, placeholder).append(record.args[arg++]);
+            from = placeholder + 2;
+        }
+        builder.append(template, from, template.length());
+    }
+
+    private static class Record {
+        Site site;
+        String template;
+        int argCount;
+        final double[] args = new double[3];
+        double timestamp;
+        long suppressed;
+
+        void copyFrom(Record other) {
+            site = other.site;
+            template = other.template;
+            argCount = other.argCount;
+            System.arraycopy(other.args, 0, args, 0, args.length);
+            timestamp = other.timestamp;
+            suppressed = other.suppressed;
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package org.team1540.lib.util;
+
+import edu.wpi.first.networktables.BooleanArrayPublisher;
+import edu.wpi.first.networktables.BooleanPublisher;
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.DoublePublisher;
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.StringPublisher;
+import edu.wpi.first.util.datalog.BooleanArrayLogEntry;
+import edu.wpi.first.util.datalog.BooleanLogEntry;
+import edu.wpi.first.util.datalog.DoubleArrayLogEntry;
+import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.util.datalog.StringLogEntry;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Publishes dashboard values through publishers that are made once, instead of looking up the key on every
+ * SmartDashboard.putX call. Signals are registered once (usually as fields), their values are set whenever, and
+ * {@link #flush()} publishes the ones that changed, no more often than each signal's max rate. Everything goes under
+ * the SmartDashboard table so the keys look the same as before on the dashboard.
+ * <p>
+ * The bus also keeps track of roughly how many bytes it sends each second. When the FMS is attached and a budget is
+ * set, it works out once a second how much it has to cut to fit: LOW signals come off NetworkTables first, then NORMAL
+ * signals drop to a quarter of their rate. HIGH signals are never cut. Anything cut from NetworkTables is written to
+ * the DataLog at its full rate instead, so nothing is lost from the log.
+ */
+public class TelemetryBus {
+    public enum Priority {
+        /**
+         * Needed to drive the robot, like what the drive team looks at during a match
+         */
+        HIGH,
+        NORMAL,
+        /**
+         * Only useful for debugging
+         */
+        LOW
+    }
+
+    /**
+     * Roughly what NT4 adds to each value it sends: the topic id, timestamp and type
+     */
+    private static final int MESSAGE_OVERHEAD_BYTES = 16;
+    private static final double WINDOW_SECONDS = 1;
+    private static final double NORMAL_THROTTLE = 4;
+
+    private static TelemetryBus instance;
+
+    private final NetworkTable table = NetworkTableInstance.getDefault().getTable("SmartDashboard");
+    private final List<Signal> signals = new ArrayList<>();
+
+    private double fieldBudgetBytesPerSecond = Double.POSITIVE_INFINITY;
+    /**
+     * How many bytes each priority would send in the current window if nothing were cut
+     */
+    private final double[] demandBytes = new double[Priority.values().length];
+    private double sentBytes = 0;
+    private double windowStart = Timer.getFPGATimestamp();
+    /**
+     * 0 sends everything, 1 cuts LOW signals and 2 also throttles NORMAL signals
+     */
+    private int level = 0;
+    private final DoubleSignal utilizationSignal;
+
+    public static TelemetryBus getInstance() {
+        if (instance == null) {
+            instance = new TelemetryBus();
+        }
+        return instance;
+    }
+
+    private TelemetryBus() {
+        utilizationSignal = addDouble("telemetry/utilization", Priority.HIGH, 1);
+    }
+
+    /**
+     * Sets how many bytes per second the bus can send while the FMS is attached. Off the field it always sends
+     * everything.
+     */
+    public void setFieldBudget(double bytesPerSecond) {
+        fieldBudgetBytesPerSecond = bytesPerSecond;
+    }
+
+    /**
+     * Whether things of this priority are still being sent over NetworkTables. Use this to skip drawing things like
+     * Field2d trajectories that don't go through the bus.
+     */
+    public boolean isPublishing(Priority priority) {
+        return !(priority == Priority.LOW && level >= 1);
+    }
+
+    public DoubleSignal addDouble(String key, Priority priority, double maxRateHz) {
+        return add(new DoubleSignal(key, table.getDoubleTopic(key).publish(), priority, maxRateHz));
+    }
+
+    public BooleanSignal addBoolean(String key, Priority priority, double maxRateHz) {
+        return add(new BooleanSignal(key, table.getBooleanTopic(key).publish(), priority, maxRateHz));
+    }
+
+    public StringSignal addString(String key, Priority priority, double maxRateHz) {
+        return add(new StringSignal(key, table.getStringTopic(key).publish(), priority, maxRateHz));
+    }
+
+    public DoubleArraySignal addDoubleArray(String key, int length, Priority priority, double maxRateHz) {
+        return add(new DoubleArraySignal(key, table.getDoubleArrayTopic(key).publish(), length, priority, maxRateHz));
+    }
+
+    public BooleanArraySignal addBooleanArray(String key, int length, Priority priority, double maxRateHz) {
+        return add(new BooleanArraySignal(key, table.getBooleanArrayTopic(key).publish(), length, priority, maxRateHz));
+    }
+
+    private <T extends Signal> T add(T signal) {
+        signals.add(signal);
+        return signal;
+    }
+
+    /**
+     * Publishes every signal that changed since it was last published and is allowed to publish again, and logs the
+     * ones that are being cut. Call this once per loop.
+     */
+    public void flush() {
+        double now = Timer.getFPGATimestamp();
+        for (Signal signal : signals) {
+            int priority = signal.priority.ordinal();
+            if (signal.changed && now - signal.lastSampleTime >= signal.minPeriod) {
+                signal.changed = false;
+                signal.lastSampleTime = now;
+                demandBytes[priority] += signal.size() + MESSAGE_OVERHEAD_BYTES;
+                if (isThrottled(signal.priority)) signal.log();
+            }
+            // A throttled signal catches up with its latest value once it's allowed to send again
+            if (signal.lastNetworkTime < signal.lastSampleTime && canSend(signal, now)) {
+                signal.publish();
+                signal.lastNetworkTime = now;
+                sentBytes += signal.size() + MESSAGE_OVERHEAD_BYTES;
+            }
+        }
+
+        if (now - windowStart >= WINDOW_SECONDS) {
+            updateLevel(now - windowStart);
+            windowStart = now;
+        }
+    }
+
+    private boolean isThrottled(Priority priority) {
+        return (priority == Priority.LOW && level >= 1) || (priority == Priority.NORMAL && level >= 2);
+    }
+
+    private boolean canSend(Signal signal, double now) {
+        switch (signal.priority) {
+            case LOW:
+                return level < 1 && now - signal.lastNetworkTime >= signal.minPeriod;
+            case NORMAL:
+                return now - signal.lastNetworkTime >= (level >= 2 ? signal.minPeriod * NORMAL_THROTTLE : signal.minPeriod);
+            default:
+                return now - signal.lastNetworkTime >= signal.minPeriod;
+        }
+    }
+
+    /**
+     * Picks the smallest cut that would have kept the last window inside the budget
+     */
+    private void updateLevel(double windowLength) {
+        double budget = DriverStation.isFMSAttached() ? fieldBudgetBytesPerSecond : Double.POSITIVE_INFINITY;
+        double high = demandBytes[Priority.HIGH.ordinal()] / windowLength;
+        double normal = demandBytes[Priority.NORMAL.ordinal()] / windowLength;
+        double low = demandBytes[Priority.LOW.ordinal()] / windowLength;
+        if (high + normal + low <= budget) {
+            level = 0;
+        } else if (high + normal <= budget) {
+            level = 1;
+        } else {
+            level = 2;
+        }
+        double sent = sentBytes / windowLength;
+        utilizationSignal.set(Double.isInfinite(fieldBudgetBytesPerSecond) ? 0 : sent / fieldBudgetBytesPerSecond);
+
+        Arrays.fill(demandBytes, 0);
+        sentBytes = 0;
+    }
+
+    public abstract static class Signal {
+        public final Priority priority;
+        final String logName;
+        private final double minPeriod;
+        private double lastSampleTime = Double.NEGATIVE_INFINITY;
+        private double lastNetworkTime = Double.NEGATIVE_INFINITY;
+        boolean changed = false;
+
+        Signal(String key, Priority priority, double maxRateHz) {
+            this.logName = "CUSTOM:telemetry/" + key;
+            this.priority = priority;
+            this.minPeriod = 1 / maxRateHz;
+        }
+
+        abstract void publish();
+
+        /**
+         * Writes the value to the DataLog, for when it isn't being sent over NetworkTables
+         */
+        abstract void log();
+
+        /**
+         * @return about how many bytes the value takes up when it's sent
+         */
+        abstract int size();
+    }
+
+    public static class DoubleSignal extends Signal {
+        private final DoublePublisher publisher;
+        private double value = Double.NaN;
+        private DoubleLogEntry logEntry;
+
+        DoubleSignal(String key, DoublePublisher publisher, Priority priority, double maxRateHz) {
+            super(key, priority, maxRateHz);
+            this.publisher = publisher;
+        }
+
+        public void set(double value) {
+            if (Double.compare(value, this.value) == 0) return;
+            this.value = value;
+            changed = true;
+        }
+
+        @Override
+        void publish() {
+            publisher.set(value);
+        }
+
+        @Override
+        void log() {
+            if (logEntry == null) logEntry = new DoubleLogEntry(DataLogManager.getLog(), logName);
+            logEntry.append(value);
+        }
+
+        @Override
+        int size() {
+            return 8;
+        }
+    }
+
+    public static class BooleanSignal extends Signal {
+        private final BooleanPublisher publisher;
+        private boolean value = false;
+        private BooleanLogEntry logEntry;
+
+        BooleanSignal(String key, BooleanPublisher publisher, Priority priority, double maxRateHz) {
+            super(key, priority, maxRateHz);
+            this.publisher = publisher;
+            // Publish the default once so the key shows up
+            changed = true;
+        }
+
+        public void set(boolean value) {
+            if (value == this.value) return;
+            this.value = value;
+            changed = true;
+        }
+
+        @Override
+        void publish() {
+            publisher.set(value);
+        }
+
+        @Override
+        void log() {
+            if (logEntry == null) logEntry = new BooleanLogEntry(DataLogManager.getLog(), logName);
+            logEntry.append(value);
+        }
+
+        @Override
+        int size() {
+            return 1;
+        }
+    }
+
+    public static class StringSignal extends Signal {
+        private final StringPublisher publisher;
+        private String value = "";
+        private StringLogEntry logEntry;
+
+        StringSignal(String key, StringPublisher publisher, Priority priority, double maxRateHz) {
+            super(key, priority, maxRateHz);
+            this.publisher = publisher;
+            changed = true;
+        }
+
+        public void set(String value) {
+            if (Objects.equals(value, this.value)) return;
+            this.value = value;
+            changed = true;
+        }
+
+        @Override
+        void publish() {
+            publisher.set(value);
+        }
+
+        @Override
+        void log() {
+            if (logEntry == null) logEntry = new StringLogEntry(DataLogManager.getLog(), logName);
+            logEntry.append(value);
+        }
+
+        @Override
+        int size() {
+            return value.length();
+        }
+    }
+
+    /**
+     * A fixed length array that's filled in one element at a time, so setting it doesn't need a new array each loop
+     */
+    public static class DoubleArraySignal extends Signal {
+        private final DoubleArrayPublisher publisher;
+        private final double[] values;
+        private DoubleArrayLogEntry logEntry;
+
+        DoubleArraySignal(String key, DoubleArrayPublisher publisher, int length, Priority priority, double maxRateHz) {
+            super(key, priority, maxRateHz);
+            this.publisher = publisher;
+            this.values = new double[length];
+            changed = true;
+        }
+
+        public void set(int index, double value) {
+            if (Double.compare(value, values[index]) == 0) return;
+            values[index] = value;
+            changed = true;
+        }
+
+        public void setAll(double[] values) {
+            if (Arrays.equals(values, this.values)) return;
+            System.arraycopy(values, 0, this.values, 0, this.values.length);
+            changed = true;
+        }
+
+        @Override
+        void publish() {
+            publisher.set(values);
+        }
+
+        @Override
+        void log() {
+            if (logEntry == null) logEntry = new DoubleArrayLogEntry(DataLogManager.getLog(), logName);
+            logEntry.append(values);
+        }
+
+        @Override
+        int size() {
+            return 8 * values.length;
+        }
+    }
+
+    public static class BooleanArraySignal extends Signal {
+        private final BooleanArrayPublisher publisher;
+        private final boolean[] values;
+        private BooleanArrayLogEntry logEntry;
+
+        BooleanArraySignal(String key, BooleanArrayPublisher publisher, int length, Priority priority, double maxRateHz) {
+            super(key, priority, maxRateHz);
+            this.publisher = publisher;
+            this.values = new boolean[length];
+            changed = true;
+        }
+
+        public void set(int index, boolean value) {
+            if (value == values[index]) return;
+            values[index] = value;
+            changed = true;
+        }
+
+        @Override
+        void publish() {
+            publisher.set(values);
+        }
+
+        @Override
+        void log() {
+            if (logEntry == null) logEntry = new BooleanArrayLogEntry(DataLogManager.getLog(), logName);
+            logEntry.append(values);
+        }
+
+        @Override
+        int size() {
+            return values.length;
+        }
+    }
+}
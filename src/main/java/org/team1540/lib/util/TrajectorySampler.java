@@ -0,0 +1,108 @@
+package org.team1540.lib.util;
+
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.wpilibj.DriverStation;
+
+import java.util.List;
+
+/**
+ * Samples a trajectory as it would be for an alliance without copying it. Red states are mirrored the same way
+ * PathPlannerTrajectory.transformTrajectoryForAlliance does it, but only when they're sampled. Samples are found by
+ * moving a cursor through the states from where the last sample was, so sampling at increasing times (like following
+ * or drawing the path) is constant time per sample. Going backwards in time falls back to a binary search.
+ * <p>
+ * sample() fills in and returns the same state object every time, so copy anything that needs to outlive the next call.
+ * States that aren't PathPlannerStates (like the ones Trajectory.concatenate makes) face the way they're driving.
+ */
+public class TrajectorySampler {
+    private final List<Trajectory.State> states;
+    private final boolean mirrored;
+    private final PathPlannerState sample = new PathPlannerState();
+    private int cursor = 0;
+
+    /**
+     * Samples the trajectory as it is, without mirroring
+     */
+    public TrajectorySampler(Trajectory trajectory) {
+        this(trajectory, DriverStation.Alliance.Blue);
+    }
+
+    public TrajectorySampler(Trajectory trajectory, DriverStation.Alliance alliance) {
+        this.states = trajectory.getStates();
+        this.mirrored = alliance == DriverStation.Alliance.Red;
+    }
+
+    public double getTotalTimeSeconds() {
+        return states.get(states.size() - 1).timeSeconds;
+    }
+
+    public PathPlannerState sample(double timeSeconds) {
+        int last = states.size() - 1;
+        if (timeSeconds < states.get(cursor).timeSeconds) {
+            cursor = search(timeSeconds);
+        }
+        while (cursor < last && states.get(cursor + 1).timeSeconds <= timeSeconds) {
+            cursor++;
+        }
+
+        Trajectory.State start = states.get(cursor);
+        if (cursor == last || timeSeconds <= start.timeSeconds) {
+            return fill(start, start, 0);
+        }
+        Trajectory.State end = states.get(cursor + 1);
+        return fill(start, end, (timeSeconds - start.timeSeconds) / (end.timeSeconds - start.timeSeconds));
+    }
+
+    /**
+     * @return the index of the last state at or before the time, or 0 if the time is before the first state
+     */
+    private int search(double timeSeconds) {
+        int low = 0;
+        int high = states.size() - 1;
+        while (low < high) {
+            int middle = (low + high + 1) / 2;
+            if (states.get(middle).timeSeconds <= timeSeconds) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    private PathPlannerState fill(Trajectory.State start, Trajectory.State end, double t) {
+        double sign = mirrored ? -1 : 1;
+        double x = MathUtil.interpolate(start.poseMeters.getX(), end.poseMeters.getX(), t);
+        double y = MathUtil.interpolate(start.poseMeters.getY(), end.poseMeters.getY(), t);
+        Rotation2d heading = start.poseMeters.getRotation().interpolate(end.poseMeters.getRotation(), t);
+        Rotation2d holonomicRotation = heading;
+        double angularVelocity = 0;
+        double holonomicAngularVelocity = 0;
+        if (start instanceof PathPlannerState && end instanceof PathPlannerState) {
+            PathPlannerState pathPlannerStart = (PathPlannerState) start;
+            PathPlannerState pathPlannerEnd = (PathPlannerState) end;
+            holonomicRotation = pathPlannerStart.holonomicRotation.interpolate(pathPlannerEnd.holonomicRotation, t);
+            angularVelocity = MathUtil.interpolate(pathPlannerStart.angularVelocityRadPerSec, pathPlannerEnd.angularVelocityRadPerSec, t);
+            holonomicAngularVelocity = MathUtil.interpolate(pathPlannerStart.holonomicAngularVelocityRadPerSec, pathPlannerEnd.holonomicAngularVelocityRadPerSec, t);
+        }
+
+        sample.timeSeconds = MathUtil.interpolate(start.timeSeconds, end.timeSeconds, t);
+        sample.velocityMetersPerSecond = MathUtil.interpolate(start.velocityMetersPerSecond, end.velocityMetersPerSecond, t);
+        sample.accelerationMetersPerSecondSq = MathUtil.interpolate(start.accelerationMetersPerSecondSq, end.accelerationMetersPerSecondSq, t);
+        sample.curvatureRadPerMeter = sign * MathUtil.interpolate(start.curvatureRadPerMeter, end.curvatureRadPerMeter, t);
+        sample.angularVelocityRadPerSec = sign * angularVelocity;
+        sample.holonomicAngularVelocityRadPerSec = sign * holonomicAngularVelocity;
+        if (mirrored) {
+            sample.poseMeters = new Pose2d(x, TrajectoryTransformer.FIELD_WIDTH_METERS - y, heading.unaryMinus());
+            sample.holonomicRotation = holonomicRotation.unaryMinus();
+        } else {
+            sample.poseMeters = new Pose2d(x, y, heading);
+            sample.holonomicRotation = holonomicRotation;
+        }
+        return sample;
+    }
+}
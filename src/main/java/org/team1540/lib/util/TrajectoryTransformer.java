@@ -12,7 +12,7 @@ import java.util.List;
 
 
 public class TrajectoryTransformer {
-    private static final double FIELD_WIDTH_METERS = 8.02;
+    static final double FIELD_WIDTH_METERS = 8.02;
 
     public static Pose2d transformPoseForAlliance(Pose2d rawPose, DriverStation.Alliance alliance) {
         if (alliance== DriverStation.Alliance.Blue) {return rawPose;}
@@ -3,27 +3,66 @@ package org.team1540.robot2023;
 
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.Command;
+import org.team1540.robot2023.utils.AutoPath;
 
+import java.util.function.Supplier;
+
+/**
+ * An auto in the chooser. The command itself isn't constructed until {@link #build()} is called, since only the
+ * selected auto ever needs it. Everything the robot needs before that (whether it resets odometry, where it starts, and
+ * the preview) comes from the auto's path, which is just a precompiled file to load.
+ */
 public class AutoCommandData {
-    public final Command command;
     public final String name;
-    public final Trajectory trajectory;
-    public final boolean resetting;
-    public final Pose2d initialPose;
+    private final AutoPath path;
+    private final Supplier<? extends Command> factory;
+
+    private Command command = null;
+    private Trajectory trajectory = null;
+    private Pose2d initialPose = null;
 
-    public AutoCommandData(Command command, String name, Trajectory trajectory, boolean resetting) {
-        this.command = command;
+    public AutoCommandData(String name, AutoPath path, Supplier<? extends Command> factory) {
         this.name = name;
-        this.trajectory = trajectory;
-        this.resetting = resetting;
-        this.initialPose = null;
+        this.path = path;
+        this.factory = factory;
     }
-    public AutoCommandData(Command command, String name, Trajectory trajectory, Pose2d initialPose, boolean resetting) {
-        this.command = command;
-        this.name = name;
-        this.trajectory = trajectory;
-        this.resetting = resetting;
-        this.initialPose = initialPose;
+
+    public void build() {
+        if (command != null) return;
+        double startTime = Timer.getFPGATimestamp();
+        command = factory.get();
+        DataLogManager.log("Built auto " + name + " in " + (Timer.getFPGATimestamp() - startTime) + " seconds");
+    }
+
+    /**
+     * Drops the built command so it can be garbage collected once another auto is selected
+     */
+    public void release() {
+        command = null;
+    }
+
+    public boolean isBuilt() {
+        return command != null;
+    }
+
+    public Command getCommand() {
+        return command;
+    }
+
+    public Trajectory getTrajectory() {
+        if (trajectory == null && path != null) trajectory = path.getFullTrajectory();
+        return trajectory;
+    }
+
+    public Pose2d getInitialPose() {
+        if (initialPose == null && path != null) initialPose = path.getInitialPose();
+        return initialPose;
+    }
+
+    public boolean isResetting() {
+        return path != null && path.shouldReset;
     }
 }
@@ -2,19 +2,34 @@ package org.team1540.robot2023;
 
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.trajectory.Trajectory;
+import edu.wpi.first.wpilibj.DataLogManager;
 import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
-import org.team1540.lib.util.TrajectoryTransformer;
-import org.team1540.robot2023.utils.AutoCommand;
+import org.team1540.lib.util.TrajectorySampler;
+import org.team1540.robot2023.utils.AutoPath;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
 
 import static org.team1540.robot2023.Globals.field2d;
 
-public class AutoManager {
+public class AutoManager implements AutoRegistry {
+    // How long the selection has to stay the same before we build it, so clicking through the chooser doesn't build everything
+    private static final double SELECTION_SETTLE_TIME = 0.5;
+    // The field widget only needs enough poses to show the shape of the path
+    private static final int PREVIEW_POSES = 50;
 
     private static AutoManager instance;
     private final SendableChooser<AutoCommandData> chooser = new SendableChooser<>();
+    private AutoCommandData lastSelected = null;
+    private double selectionTime = 0;
+    private Trajectory previewTrajectory = null;
+    private DriverStation.Alliance previewAlliance = null;
+    private boolean hasPreview = false;
 
     public static AutoManager getInstance() {
         if (instance == null) {
@@ -26,51 +41,81 @@ public class AutoManager {
         SmartDashboard.putData("autoChooser", chooser);
     }
 
-    public void addAuto(AutoCommand command) {
-        chooser.addOption(command.getName(), new AutoCommandData(command, command.getName(), command.getFullTrajectory(), command.getInitialPose(), command.getIsResetting()));
-    }
-    public void addAuto(String name, AutoCommand command) {
-        addAuto(name, command, command.getFullTrajectory());
-    }
-    public void addAuto(String name, Command command) {
-        chooser.addOption(name, new AutoCommandData(command, name, null, false));
-    }
-    public void addAuto(String name, Command command, Trajectory trajectory) {
-        addAuto(name, command, trajectory, false);
+    @Override
+    public void addAuto(String name, AutoPath path, Supplier<? extends Command> factory) {
+        chooser.addOption(name, new AutoCommandData(name, path, factory));
     }
-    public void addAuto(String name, Command command, Trajectory trajectory, boolean resetting) {
-        chooser.addOption(name, new AutoCommandData(command, name, trajectory, resetting));
-    }
-    public void addDefaultAuto(String name, Command command, Trajectory trajectory) {
-        chooser.setDefaultOption(name, new AutoCommandData(command, name, trajectory, false));
+    @Override
+    public void addDefaultAuto(String name, Supplier<? extends Command> factory) {
+        chooser.setDefaultOption(name, new AutoCommandData(name, null, factory));
     }
 
+    /**
+     * Shows the selected auto's path right away, builds the command once the selection has settled while disabled, and
+     * throws away the previously built one. This runs on the main thread since composing commands isn't thread safe, which is fine while disabled.
+     */
     public void updateSelected() {
         AutoCommandData selected = chooser.getSelected();
-        if (selected != null) {
-            if (selected.trajectory != null) {
-                field2d.getObject("trajectory").setTrajectory(TrajectoryTransformer.transformTrajectoryForAlliance(selected.trajectory, DriverStation.getAlliance()));
-            } else {
-                field2d.getObject("trajectory").setPoses();
-            }
+        if (selected != lastSelected) {
+            if (lastSelected != null && DriverStation.isDisabled()) lastSelected.release();
+            lastSelected = selected;
+            selectionTime = Timer.getFPGATimestamp();
+        }
+        if (selected == null) return;
+        if (DriverStation.isDisabled() && Timer.getFPGATimestamp() - selectionTime > SELECTION_SETTLE_TIME) {
+            selected.build();
         }
+        updatePreview(selected.getTrajectory(), DriverStation.getAlliance());
     }
 
+    /**
+     * Puts the trajectory on the field widget, but only when it or the alliance has changed since last time
+     */
+    private void updatePreview(Trajectory trajectory, DriverStation.Alliance alliance) {
+        if (hasPreview && trajectory == previewTrajectory && alliance == previewAlliance) return;
+        hasPreview = true;
+        previewTrajectory = trajectory;
+        previewAlliance = alliance;
+
+        if (trajectory == null) {
+            field2d.getObject("trajectory").setPoses();
+            return;
+        }
+        long startTime = System.nanoTime();
+        TrajectorySampler sampler = new TrajectorySampler(trajectory, alliance);
+        List<Pose2d> poses = new ArrayList<>(PREVIEW_POSES + 1);
+        double totalTime = sampler.getTotalTimeSeconds();
+        for (int i = 0; i <= PREVIEW_POSES; i++) {
+            poses.add(sampler.sample(totalTime * i / PREVIEW_POSES).poseMeters);
+        }
+        field2d.getObject("trajectory").setPoses(poses);
+        DataLogManager.log("Updated auto preview with " + poses.size() + " of " + trajectory.getStates().size()
+                + " poses in " + (System.nanoTime() - startTime) / 1e6 + " ms");
+    }
+
+    /**
+     * @return the selected auto, building it now if that hasn't happened yet
+     */
     public Command getSelected() {
-        return chooser.getSelected().command;
+        AutoCommandData selected = chooser.getSelected();
+        if (!selected.isBuilt()) {
+            DriverStation.reportWarning("Auto " + selected.name + " wasn't built before it was needed", false);
+            selected.build();
+        }
+        return selected.getCommand();
     }
     public String getSelectedName() {
         return chooser.getSelected().name;
     }
 
     public Trajectory getSelectedTrajectory() {
-        return chooser.getSelected().trajectory;
+        return chooser.getSelected().getTrajectory();
     }
 
     public boolean getSelectedShouldReset() {
-        return chooser.getSelected().resetting;
+        return chooser.getSelected().isResetting();
     }
     public Pose2d getSelectedInitialPose() {
-        return chooser.getSelected().initialPose;
+        return chooser.getSelected().getInitialPose();
     }
 }
@@ -0,0 +1,23 @@
+package org.team1540.robot2023;
+
+import edu.wpi.first.wpilibj2.command.Command;
+import org.team1540.robot2023.utils.AutoPath;
+
+import java.util.function.Supplier;
+
+/**
+ * Somewhere autos get registered. The robot registers them with {@link AutoManager}, and the trajectory compiler
+ * registers the same list with itself to find out which paths to precompile.
+ */
+public interface AutoRegistry {
+    /**
+     * @param path the path the auto drives, or null if it doesn't drive one
+     */
+    void addAuto(String name, AutoPath path, Supplier<? extends Command> factory);
+
+    void addDefaultAuto(String name, Supplier<? extends Command> factory);
+
+    default void addAuto(String name, Supplier<? extends Command> factory) {
+        addAuto(name, null, factory);
+    }
+}
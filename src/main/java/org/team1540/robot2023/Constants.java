@@ -9,18 +9,33 @@ import org.team1540.lib.util.COTSFalconSwerveConstants;
 import org.team1540.lib.util.SwerveModuleConstants;
 import org.team1540.robot2023.utils.ArmState;
 import org.team1540.robot2023.utils.GridScoreData;
+import org.team1540.robot2023.utils.ScoringNodes;
 import org.team1540.robot2023.utils.swerve.ModuleCorner;
 
 public final class Constants {
     public static final boolean ENABLE_PNEUMATICS = false;
     public static final int PNEUMATIC_HUB = 2;
     public static final int PDH = 1;
+    public static final double POWER_LOG_PERIOD = 0.1; // seconds
+    public static final double TELEMETRY_FMS_BUDGET = 20000; // bytes per second, out of the 4 Mbps the field gives us
+    public static final boolean LOOP_PROFILING = true;
+    public static final double LOOP_BUDGET = 0.015; // seconds of robotPeriodic before deferrable work gets skipped
+    public static final boolean CHECK_ALLOCATIONS = false; // only in sim, the tests check them either way
+    public static final int ALLOCATION_CHECK_LOOPS = 500;
     private static final boolean isNewRobot = true;
     
     // 22 in
 
 //    public static final double poleOffsetMeters = 0.5;
 
+    // Bytes each call can allocate on average in sim, TODO: measure and tighten
+    public static final class AllocationBudgets {
+        public static final long ROBOT_PERIODIC = 65536;
+        public static final long LIMELIGHT_PERIODIC = 4096;
+        public static final long DRIVETRAIN_PERIODIC = 8192;
+        public static final long SWERVE_DRIVE_EXECUTE = 2048;
+    }
+
     public static final class Auto {
         public static final double gridPoleOffsetMeters = Units.inchesToMeters(22);
         public static final double gridBackoffOffsetMeters = Units.inchesToMeters(32);
@@ -42,22 +57,22 @@ public final class Constants {
         public static final ArmState armHumanPlayerRetreat = ArmState.fromRotationExtension(Rotation2d.fromDegrees(-55),55);
 
 
-        public static final GridScoreData midCube = new GridScoreData(ArmState.fromRotationExtension(Rotation2d.fromDegrees(-65), 35.18));
-        public static final GridScoreData highCube = new GridScoreData(ArmState.fromRotationExtension(Rotation2d.fromDegrees(-55),59));
-        public static final GridScoreData reverseHighCube = new GridScoreData(ArmState.fromRotationExtension(Rotation2d.fromDegrees(55),59));
+        public static final GridScoreData midCube = new GridScoreData(ArmState.fromRotationExtension(Rotation2d.fromDegrees(-65), 35.18)).withLevel(ScoringNodes.Level.MID);
+        public static final GridScoreData highCube = new GridScoreData(ArmState.fromRotationExtension(Rotation2d.fromDegrees(-55),59)).withLevel(ScoringNodes.Level.HIGH);
+        public static final GridScoreData reverseHighCube = new GridScoreData(ArmState.fromRotationExtension(Rotation2d.fromDegrees(55),59)).withLevel(ScoringNodes.Level.HIGH);
 
         public static final GridScoreData midCone = new GridScoreData(
                 ArmState.fromRotationExtension(Rotation2d.fromDegrees(-50),47.0), // Mid Cone Approach (46.0 originally)
                 ArmState.fromRotationExtension(Rotation2d.fromDegrees(-70.7),47.0) // Mid Cone Score (46.0 originally)
-        );
+        ).withLevel(ScoringNodes.Level.MID);
         public static final GridScoreData highCone = new GridScoreData(
                 ArmState.fromRotationExtension(Rotation2d.fromDegrees(-53),67), // High Cone Approach
                 ArmState.fromRotationExtension(Rotation2d.fromDegrees(-65.5),67), // High Cone Score
                 ArmState.fromRotationExtension(Rotation2d.fromDegrees(-58),67) // High Cone Retreat
-        );
+        ).withLevel(ScoringNodes.Level.HIGH);
 
-        public static final GridScoreData hybridNode = new GridScoreData(ArmState.fromRotationExtension(Rotation2d.fromDegrees(-15), 0)).withAdditionalBackoff(Units.inchesToMeters(0));
-        public static final GridScoreData middleHybridNode = new GridScoreData(ArmState.fromRotationExtension(Rotation2d.fromDegrees(-30),0)).withAdditionalBackoff(Units.inchesToMeters(0));
+        public static final GridScoreData hybridNode = new GridScoreData(ArmState.fromRotationExtension(Rotation2d.fromDegrees(-15), 0)).withAdditionalBackoff(Units.inchesToMeters(0)).withLevel(ScoringNodes.Level.HYBRID);
+        public static final GridScoreData middleHybridNode = new GridScoreData(ArmState.fromRotationExtension(Rotation2d.fromDegrees(-30),0)).withAdditionalBackoff(Units.inchesToMeters(0)).withLevel(ScoringNodes.Level.HYBRID);
 
 
 
@@ -144,6 +159,11 @@ public final class Constants {
         public static final double maxAngularSpeed = maxVelocity /
                 Math.hypot(trackWidth / 2.0, wheelBase / 2.0);
 
+        /* Path Following */
+        // Seconds ahead of the path timer to aim for, to make up for latency between measuring the pose and the modules
+        // getting the new speeds
+        public static final double pathLookahead = 0.0; //TODO: Tune
+
         /* Neutral Modes */
         public static final NeutralMode angleNeutralMode = NeutralMode.Coast;
         public static final NeutralMode driveNeutralMode = NeutralMode.Brake;
@@ -190,12 +210,15 @@ public final class Constants {
         public static final int TELESCOPE_ID = 12;
         public static final int PIGEON_ID = 13;
 
-        public static final double PIVOT_FF = 0;
+        // The pivot's gravity feedforward is fit on the robot, see PivotGravityGains
         public static final double PIVOT_KP = 0.2;
         public static final double PIVOT_KI = 0;
         public static final double PIVOT_KD = 1;
         public static final double PIVOT_MAX_ACCEL = 40_000;
         public static final double PIVOT_CRUISE_SPEED = 20_000;
+        // A move only counts as done once the arm is slower than these, so it can't end while swinging through the target
+        public static final double PIVOT_SETTLED_VELOCITY = 5; // degrees per second
+        public static final double TELESCOPE_SETTLED_VELOCITY = 2; // inches per second
 
         // The distance of the pivot from the ground
         public static final double PIVOT_HEIGHT = 21.5;
@@ -223,7 +246,9 @@ public final class Constants {
         public static final double TELESCOPE_MAX_ACCEL = TELESCOPE_CRUISE_SPEED/(0.25);
 
 
-        public static final float TELESCOPE_FORWARD_LIMIT = (float) ((67 - ARM_BASE_LENGTH) * EXT_GEAR_RATIO / EXT_ROTS_TO_INCHES);
+        // The longest the telescope can extend
+        public static final double ARM_MAX_EXTENSION = 67;
+        public static final float TELESCOPE_FORWARD_LIMIT = (float) ((ARM_MAX_EXTENSION - ARM_BASE_LENGTH) * EXT_GEAR_RATIO / EXT_ROTS_TO_INCHES);
 
         // The max height from the floor
         public static final double MAX_LEGAL_HEIGHT = 78 - PIVOT_HEIGHT;
@@ -232,12 +257,42 @@ public final class Constants {
         // The maximum distance the arm will point to
         public static final double MAX_POINT_DISTANCE = MAX_LEGAL_DISTANCE + 100; // TODO: 1/30/2023 this should be the maximum limelight detection distance
 
+        // The distance of the pivot from the rear edge of the frame perimeter
+        public static final double PIVOT_REAR_DISTANCE = 17; // TODO: measure
+        // The height of the top of the bumpers from the ground
+        public static final double BUMPER_HEIGHT = 7.5;
+        public static final double BUMPER_THICKNESS = 3.5;
+        // How close the end of the arm is allowed to get to the floor when planning arm paths
+        public static final double FLOOR_CLEARANCE = 0.5;
+
         public static final double PIGEON_MNT_YAW = 0; // TODO: 2/15/2023 figure this out (depends on how the pigeon is mounted)
         public static final double PIGEON_MNT_PITCH = 90;
         public static final double PIGEON_MNT_ROLL = 0;
         public static final double PIGEON_OFFSET = 4.04;
     }
 
+    public static final class TippingConstants {
+        // Set this once the weights and CoG height below have been measured on the robot. Until then they're
+        // estimates, so teleop keeps its old fixed slew rate limits on top of the tipping model.
+        public static final boolean IS_MEASURED = false;
+        // Weights in pounds, distances in inches
+        // The robot without the arm, centered in the frame perimeter
+        public static final double CHASSIS_WEIGHT = 95; // Estimate
+        public static final double CHASSIS_COG_HEIGHT = 6; // Estimate
+        // The outer arm tube and the pivot hardware on it, with its CoG measured along the arm from the pivot
+        public static final double ARM_FIXED_WEIGHT = 12; // Estimate
+        public static final double ARM_FIXED_COG = 16;
+        // The telescoping stage and the grabber, with its CoG measured back from the end of the arm
+        public static final double ARM_TELESCOPE_WEIGHT = 10; // Estimate
+        public static final double ARM_TELESCOPE_COG_FROM_END = 6;
+        // Fraction of the acceleration that would just start to lift the wheels that we actually allow
+        public static final double SAFETY_FACTOR = 0.7;
+        // Meters per second squared. The wheels slip past this anyway, and it stops the robot from never moving if
+        // the model says it's already tipping
+        public static final double MAX_ACCEL = 9;
+        public static final double MIN_ACCEL = 1;
+    }
+
     public static final class GrabberConstants {
         public static final int CLAW_SOLENOID_CHANNEL = 0;
 
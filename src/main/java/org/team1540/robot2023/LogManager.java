@@ -1,39 +1,87 @@
 package org.team1540.robot2023;
 
+import edu.wpi.first.util.datalog.DoubleArrayLogEntry;
 import edu.wpi.first.util.datalog.DoubleLogEntry;
+import edu.wpi.first.util.datalog.IntegerLogEntry;
 import edu.wpi.first.util.datalog.StringLogEntry;
 import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.Notifier;
 import edu.wpi.first.wpilibj.PowerDistribution;
 import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
 
+import java.util.HashMap;
+import java.util.Map;
+
 public class LogManager {
+    public static final String COMMAND_EVENT_LOG_ENTRY = "CUSTOM:commands/events";
+    public static final String COMMAND_NAME_LOG_ENTRY = "CUSTOM:commands/names";
+    public static final int COMMAND_INITIALIZE = 0;
+    public static final int COMMAND_FINISH = 1;
+    public static final int COMMAND_INTERRUPT = 2;
+    /**
+     * Each command event is logged as id * COMMAND_EVENT_TYPES + the event type
+     */
+    public static final int COMMAND_EVENT_TYPES = 4;
 
     private PowerDistribution pdh;
-    private final StringLogEntry commandLog = new StringLogEntry(DataLogManager.getLog(), "CUSTOM:commands");
+    private final IntegerLogEntry commandEventLog = new IntegerLogEntry(DataLogManager.getLog(), COMMAND_EVENT_LOG_ENTRY);
+    private final StringLogEntry commandNameLog = new StringLogEntry(DataLogManager.getLog(), COMMAND_NAME_LOG_ENTRY);
+    // Keyed by name so commands built on the fly (like the ones ProxyCommand makes) don't pile up
+    private final Map<String, Integer> commandIds = new HashMap<>();
     private final DoubleLogEntry pdhVoltageLog = new DoubleLogEntry(DataLogManager.getLog(), "CUSTOM:power/voltage");
     private final DoubleLogEntry pdhCurrentLog = new DoubleLogEntry(DataLogManager.getLog(), "CUSTOM:power/totalCurrent");
     private final DoubleLogEntry pdhPowerLog = new DoubleLogEntry(DataLogManager.getLog(), "CUSTOM:power/joules");
-    private final int[] pdhChannelLogIDs;
+    private final DoubleArrayLogEntry pdhChannelLog = new DoubleArrayLogEntry(DataLogManager.getLog(), "CUSTOM:power/channelCurrents");
+    private final double[] channelCurrents;
+    private final Notifier powerLogger = new Notifier(this::logPower);
 
     public LogManager(PowerDistribution pdh) {
         this.pdh = pdh;
-        pdhChannelLogIDs = new int[pdh.getNumChannels()];
-        for (int i = 0; i<pdh.getNumChannels(); i++) {
-            pdhChannelLogIDs[i] = DataLogManager.getLog().start("CUSTOM:power/current/chan"+i, "double");
+        channelCurrents = new double[pdh.getNumChannels()];
+        powerLogger.setName("PowerLogger");
+        CommandScheduler.getInstance().onCommandInitialize(command -> logCommand(command, COMMAND_INITIALIZE));
+        CommandScheduler.getInstance().onCommandFinish(command -> logCommand(command, COMMAND_FINISH));
+        CommandScheduler.getInstance().onCommandInterrupt(command -> logCommand(command, COMMAND_INTERRUPT));
+    }
+
+    /**
+     * Logs a command event as a single integer. Commands with the same name share an id, and the first time a name
+     * shows up its id is logged as "id:name", so the events can be read back with CommandLogDecoder.
+     */
+    private void logCommand(Command command, int event) {
+        String name = command.getName();
+        Integer id = commandIds.get(name);
+        if (id == null) {
+            id = commandIds.size();
+            commandIds.put(name, id);
+            commandNameLog.append(id + ":" + name);
         }
-        CommandScheduler.getInstance().onCommandInitialize((command -> commandLog.append("Initializing: "+command.getName())));
-        CommandScheduler.getInstance().onCommandFinish((command -> commandLog.append("Ending: "+command.getName())));
-        CommandScheduler.getInstance().onCommandInterrupt((command -> commandLog.append("Interrupting: "+command.getName())));
+        commandEventLog.append((long) id * COMMAND_EVENT_TYPES + event);
     }
 
-    public void execute() {
-        pdhVoltageLog.append(pdh.getVoltage());
-        pdhCurrentLog.append(pdh.getTotalCurrent());
-        pdhPowerLog.append(pdh.getTotalPower());
+    /**
+     * Logs the PDH on its own thread so the CAN reads don't slow down the main loop. Each sample logs every channel's
+     * current as one array, with the same timestamp as the totals.
+     */
+    public void startPowerLogging(double periodSeconds) {
+        powerLogger.startPeriodic(periodSeconds);
+    }
+
+    public void stopPowerLogging() {
+        powerLogger.stop();
+    }
 
-        for (int i = 0; i<pdh.getNumChannels();i++) {
-            DataLogManager.getLog().appendDouble(pdhChannelLogIDs[i], pdh.getCurrent(i), RobotController.getFPGATime());
+    private void logPower() {
+        // The PDH only has a per channel read in this WPILib, so read them all first and log them together
+        for (int i = 0; i < channelCurrents.length; i++) {
+            channelCurrents[i] = pdh.getCurrent(i);
         }
+        long timestamp = RobotController.getFPGATime();
+        pdhVoltageLog.append(pdh.getVoltage(), timestamp);
+        pdhCurrentLog.append(pdh.getTotalCurrent(), timestamp);
+        pdhPowerLog.append(pdh.getTotalPower(), timestamp);
+        pdhChannelLog.append(channelCurrents, timestamp);
     }
 }
@@ -10,14 +10,26 @@ import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.wpilibj.DataLogManager;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.livewindow.LiveWindow;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.CommandScheduler;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
+import org.team1540.lib.util.AllocationBudget;
+import org.team1540.lib.util.DriverStationInputs;
+import org.team1540.lib.util.InputLog;
+import org.team1540.lib.util.JvmMonitor;
+import org.team1540.lib.util.LogReplay;
+import org.team1540.lib.util.LoopBudget;
+import org.team1540.lib.util.LoopProfiler;
+import org.team1540.lib.util.RateLimitedLog;
+import org.team1540.lib.util.TelemetryBus;
 import org.team1540.robot2023.utils.BlinkinManager;
 import org.team1540.robot2023.utils.Limelight;
 
+import java.io.File;
+
 import static org.team1540.robot2023.Globals.aprilTagLayout;
 
 /**
@@ -31,7 +43,15 @@ import static org.team1540.robot2023.Globals.aprilTagLayout;
  */
 public class Robot extends TimedRobot {
     public static CTREConfigs ctreConfigs;
+    private static final int INPUTS_SECTION = LoopProfiler.getInstance().addSection("InputLog.beginCycle");
+    private static final int LIMELIGHT_SECTION = LoopProfiler.getInstance().addSection("LimelightManager.periodic");
+    private static final int SCHEDULER_SECTION = LoopProfiler.getInstance().addSection("CommandScheduler.run");
+    private static final RateLimitedLog.Site log = RateLimitedLog.site("Robot", 0);
+    private static final int ROBOT_PERIODIC_ALLOCATIONS = AllocationBudget.getInstance().add("Robot.robotPeriodic", Constants.AllocationBudgets.ROBOT_PERIODIC);
+    private static final int LIMELIGHT_ALLOCATIONS = AllocationBudget.getInstance().add("LimelightManager.periodic", Constants.AllocationBudgets.LIMELIGHT_PERIODIC);
     private RobotContainer robotContainer;
+    private JvmMonitor jvmMonitor;
+    private final DriverStationInputs driverStationInputs = new DriverStationInputs();
 
     private Command autonomousCommand;
     private boolean hasRunAuto;
@@ -44,11 +64,27 @@ public class Robot extends TimedRobot {
     @Override
     public void robotInit() {
         ctreConfigs = new CTREConfigs();
-        DataLogManager.start("/media/sda1");
+        String replayLog = isSimulation() ? LogReplay.getPath() : null;
+        if (replayLog != null) {
+            // The replay gets its own log next to the one it's replaying, so the two can be compared
+            File source = new File(replayLog).getAbsoluteFile();
+            DataLogManager.start(source.getParent(), source.getName().replace(".wpilog", "") + "_replay.wpilog");
+            // This has to happen before anything registers its inputs
+            InputLog.getInstance().startReplay(replayLog);
+        } else {
+            DataLogManager.start("/media/sda1");
+        }
         DriverStation.startDataLog(DataLogManager.getLog());
+        InputLog.getInstance().register(DriverStationInputs.NAME, driverStationInputs, DriverStationInputs::update);
+        jvmMonitor = new JvmMonitor();
+        if (isSimulation() && Constants.CHECK_ALLOCATIONS) {
+            AllocationBudget.getInstance().enable(Constants.ALLOCATION_CHECK_LOOPS);
+        }
         // Instantiate our RobotContainer. This will perform all our button bindings,
         // and put our autonomous chooser on the dashboard.
+        double containerStart = Timer.getFPGATimestamp();
         this.robotContainer = new RobotContainer();
+        DataLogManager.log("Constructing RobotContainer took " + (Timer.getFPGATimestamp() - containerStart) + " seconds");
 
         // ---------------
         // TODO: ALWAYS REMOVE BEFORE COMMITTING
@@ -58,7 +94,18 @@ public class Robot extends TimedRobot {
 //        PathPlannerServer.startServer(5811);
         // ---------------
 
-//        addPeriodic(robotContainer.logManager::execute, 0.25, 0.005);
+        robotContainer.logManager.startPowerLogging(Constants.POWER_LOG_PERIOD);
+        TelemetryBus.getInstance().setFieldBudget(Constants.TELEMETRY_FMS_BUDGET);
+        LoopProfiler.getInstance().setLoopBudget(getPeriod());
+        LoopProfiler.getInstance().profileCommands();
+        LoopProfiler.getInstance().setEnabled(Constants.LOOP_PROFILING);
+
+        // Everything here can wait a few loops if the scheduler runs long, most important first
+        LoopBudget loopBudget = LoopBudget.getInstance();
+        loopBudget.setBudget(Constants.LOOP_BUDGET);
+        loopBudget.addDeferrable("TelemetryBus.flush", TelemetryBus.getInstance()::flush, 0.1);
+        loopBudget.addDeferrable("Drivetrain.updateFieldPose", robotContainer.drivetrain::updateFieldPose, 0.1);
+        loopBudget.addDeferrable("AutoManager.updateSelected", AutoManager.getInstance()::updateSelected, 0.5);
         // Zero swerve modules 4 seconds after init
         new WaitCommand(5).andThen(() -> {
             robotContainer.drivetrain.resetAllToAbsolute();
@@ -67,6 +114,10 @@ public class Robot extends TimedRobot {
 
         // OK so this one is really stupid and really shouldn't have to be here, but it does, just deal with it.
         aprilTagLayout.getTagPose(-1);
+
+        if (replayLog != null) {
+            LogReplay.start(getPeriod());
+        }
     }
 
     /**
@@ -89,11 +140,27 @@ public class Robot extends TimedRobot {
         // and running subsystem periodic() methods. This must be called from the
         // robot's periodic
         // block in order for anything in the Command-based framework to work.
+        LoopProfiler profiler = LoopProfiler.getInstance();
+        AllocationBudget allocations = AllocationBudget.getInstance();
+        long loopAllocationStart = allocations.start();
+        profiler.beginLoop();
+        LoopBudget.getInstance().beginLoop();
+        long start = profiler.start();
+        InputLog.getInstance().beginCycle();
+        start = profiler.stop(INPUTS_SECTION, start);
+        long allocationStart = allocations.start();
         LimelightManager.getInstance().periodic();
+        allocations.stop(LIMELIGHT_ALLOCATIONS, allocationStart);
+        start = profiler.stop(LIMELIGHT_SECTION, start);
         CommandScheduler.getInstance().run();
+        profiler.stop(SCHEDULER_SECTION, start);
 
-        AutoManager.getInstance().updateSelected();
-
+        LoopBudget.getInstance().runDeferred();
+        jvmMonitor.periodic();
+        profiler.endLoop();
+        allocations.stop(ROBOT_PERIODIC_ALLOCATIONS, loopAllocationStart);
+        allocations.endLoop();
+        LogReplay.loopDone();
     }
 
     public void enabledInit() {
@@ -111,6 +178,7 @@ public class Robot extends TimedRobot {
      */
     @Override
     public void disabledInit() {
+        robotContainer.drivetrain.stop();
         new WaitCommand(5)
                 .andThen(() -> robotContainer.drivetrain.setNeutralMode(NeutralMode.Coast))
                 .ignoringDisable(true)
@@ -188,7 +256,7 @@ public class Robot extends TimedRobot {
     @Override
     public void testInit() {
         hasEnabled = true;
-        System.out.println("Test enabled");
+        log.log("Test enabled");
         LiveWindow.setEnabled(false);
     }
 
@@ -29,6 +29,9 @@ import org.team1540.robot2023.commands.grabber.*;
 import org.team1540.robot2023.commands.vision.TurnToGamePiece;
 import org.team1540.robot2023.utils.*;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.team1540.robot2023.Constants.ENABLE_PNEUMATICS;
 
 public class RobotContainer {
@@ -41,6 +44,7 @@ public class RobotContainer {
 
     public final PneumaticHub ph = new PneumaticHub(Constants.PNEUMATIC_HUB);
     public final PowerDistribution pdh = new PowerDistribution(Constants.PDH, PowerDistribution.ModuleType.kRev);
+    public final LogManager logManager = new LogManager(pdh);
     // Subsystems
 
     Drivetrain drivetrain = new Drivetrain(gyro);
@@ -64,6 +68,8 @@ public class RobotContainer {
     public RobotContainer() {
         pdh.clearStickyFaults();
         ph.clearStickyFaults();
+        drivetrain.setArmStateSupplier(arm::getArmState);
+        ArmPathPlanner.getInstance().warmCache(getArmPresets());
         setNeutralModes();
         if (ENABLE_PNEUMATICS) {
             ph.enableCompressorDigital();
@@ -148,7 +154,7 @@ public class RobotContainer {
         new Trigger(LimelightManager.getInstance()::canSeeTargets)
                 .onTrue(new InstantCommand(() -> {
                     int closestTime= AutoDrive.getClosestTag(drivetrain);
-                    if (!(closestTime == 4 || closestTime == 5)) {
+                    if (!AprilTagPoses.isSubstationTag(closestTime)) {
                         blinkins.set(BlinkinManager.ColorPair.APRILTAG);
                     }
                 }))
@@ -160,7 +166,31 @@ public class RobotContainer {
         }).withName("InstantToggleBreakMode").ignoringDisable(true));
 
         // SmartDashboard Commands
+        SmartDashboard.putData("arm/characterize", new ArmCharacterizationCommand(arm));
+
+    }
 
+    /**
+     * Everywhere the arm commands move the arm to, for planning the paths between them ahead of time
+     */
+    private static List<ArmState> getArmPresets() {
+        List<ArmState> presets = new ArrayList<>(List.of(
+                ResetArmPositionCommand.RESET_STATE,
+                Constants.Auto.armUp,
+                Constants.Auto.armPrescore,
+                Constants.Auto.armDown,
+                Constants.Auto.armDownBackwards,
+                Constants.Auto.reverseCube,
+                Constants.Auto.armHumanPlayer,
+                Constants.Auto.armHumanPlayerRetreat
+        ));
+        for (GridScoreData data : List.of(Constants.Auto.midCube, Constants.Auto.highCube, Constants.Auto.reverseHighCube,
+                Constants.Auto.midCone, Constants.Auto.highCone, Constants.Auto.hybridNode, Constants.Auto.middleHybridNode)) {
+            if (data.approach != null) presets.add(data.approach);
+            if (data.score != null) presets.add(data.score);
+            if (data.retreat != null) presets.add(data.retreat);
+        }
+        return presets;
     }
 
     public void setNeutralModes() {
@@ -197,35 +227,42 @@ public class RobotContainer {
     }
 
     private void initAutos() {
-        AutoManager manager = AutoManager.getInstance();
-        manager.addAuto(new Auto1PieceTaxi(drivetrain, arm, intake, ScoringGridLocation.TOP_GRID));
-        manager.addAuto(new Auto1PieceTaxi(drivetrain, arm, intake, ScoringGridLocation.BOTTOM_GRID));
-        manager.addAuto(new AutoMiddleGrid1PieceBalance(drivetrain, arm, intake));
-        manager.addAuto(new AutoMiddleGrid1PieceTaxiBalance(drivetrain, arm, intake));
+        registerAutos(AutoManager.getInstance(), this);
+    }
+
+    /**
+     * Registers every auto in the chooser. The factories only use the robot once they're called, so this can also run
+     * without one to list the autos' paths.
+     */
+    public static void registerAutos(AutoRegistry manager, RobotContainer robot) {
+        manager.addAuto("TopGrid1PieceTaxi", Auto1PieceTaxi.getPath(ScoringGridLocation.TOP_GRID), () -> new Auto1PieceTaxi(robot.drivetrain, robot.arm, robot.intake, ScoringGridLocation.TOP_GRID));
+        manager.addAuto("BottomGrid1PieceTaxi", Auto1PieceTaxi.getPath(ScoringGridLocation.BOTTOM_GRID), () -> new Auto1PieceTaxi(robot.drivetrain, robot.arm, robot.intake, ScoringGridLocation.BOTTOM_GRID));
+        manager.addAuto("MiddleGrid1PieceBalance", AutoMiddleGrid1PieceBalance.PATH, () -> new AutoMiddleGrid1PieceBalance(robot.drivetrain, robot.arm, robot.intake));
+        manager.addAuto("MiddleGrid1PieceTaxiBalance", AutoMiddleGrid1PieceTaxiBalance.PATH, () -> new AutoMiddleGrid1PieceTaxiBalance(robot.drivetrain, robot.arm, robot.intake));
 //        manager.addAuto(new Auto1PieceBalance(drivetrain, arm, intake, ScoringGridLocation.BOTTOM_GRID));
-        manager.addAuto(new AutoTopGrid1PieceBalance(drivetrain, arm, intake));
-        manager.addAuto(new AutoBottomGrid1PieceBalance(drivetrain, arm, intake));
+        manager.addAuto("TopGrid1PieceBalance", AutoTopGrid1PieceBalance.PATH, () -> new AutoTopGrid1PieceBalance(robot.drivetrain, robot.arm, robot.intake));
+        manager.addAuto("BottomGrid1PieceBalance", AutoBottomGrid1PieceBalance.PATH, () -> new AutoBottomGrid1PieceBalance(robot.drivetrain, robot.arm, robot.intake));
 
        // manager.addAuto(new Auto2PieceTaxiCone(drivetrain, arm, intake, ScoringGridLocation.TOP_GRID));
 //        manager.addAuto(new AutoTopGrid3PieceTaxiCone(drivetrain, arm, intake));
        //manager.addAuto(new AutoTopGrid2PieceTaxi(drivetrain, arm, intake));
-        manager.addAuto(new AutoTopGrid3PieceTaxi(drivetrain, arm, intake));
+        manager.addAuto("TopGrid3PieceTaxi", AutoTopGrid3PieceTaxi.PATH, () -> new AutoTopGrid3PieceTaxi(robot.drivetrain, robot.arm, robot.intake));
        // manager.addAuto(new AutoTopGrid3PieceTaxiCone(drivetrain, arm, intake));
         //manager.addAuto(new AutoBottomGrid2PieceTaxi(drivetrain, arm, intake));
         //manager.addAuto(new AutoBottomGrid2_5PieceTaxi(drivetrain, arm, intake)); 
 
         // manager.addAuto(new AutoTopGrid2PieceVision(drivetrain, arm, intake, LimelightManager.getInstance().rearLimelight));
-        manager.addAuto(new AutoBottomGrid2PieceTaxiVision(drivetrain, arm, intake, LimelightManager.getInstance().rearLimelight));
-        manager.addAuto(new AutoBottomGrid2_5PieceTaxiVision(drivetrain, arm, intake, LimelightManager.getInstance().rearLimelight, LimelightManager.getInstance().frontLimelight));
+        manager.addAuto("BottomGrid2PieceTaxiVision", AutoBottomGrid2PieceTaxiVision.PATH, () -> new AutoBottomGrid2PieceTaxiVision(robot.drivetrain, robot.arm, robot.intake, LimelightManager.getInstance().rearLimelight));
+        manager.addAuto("BottomGrid2.5PieceTaxiVision", AutoBottomGrid2_5PieceTaxiVision.PATH, () -> new AutoBottomGrid2_5PieceTaxiVision(robot.drivetrain, robot.arm, robot.intake, LimelightManager.getInstance().rearLimelight, LimelightManager.getInstance().frontLimelight));
         // manager.addAuto(new AutoBottomGrid2_5PieceTaxiConeVision(drivetrain, arm, intake, LimelightManager.getInstance().rearLimelight, LimelightManager.getInstance().frontLimelight));
         //manager.addAuto(new Auto2PieceTaxiConeVision(drivetrain, arm, intake, ScoringGridLocation.TOP_GRID));
 
 //        manager.addAuto(new Auto2PieceTaxi(drivetrain, arm, intake, ScoringGridLocation.BOTTOM_GRID));
 //        manager.addAuto("MiddleGrid1PieceSideBalance", new Auto1PieceSideBalance(drivetrain, arm, intake));
 //        manager.addAuto("MiddleGridSideBalance", new AutoSideBalance(drivetrain, arm, intake));
-        manager.addAuto("ScoreHighCube", new AutoCube(drivetrain, arm, Constants.Auto.highCube.withPolePosition(PolePosition.CENTER), intake, null, false));
-        manager.addAuto("ScoreMidCube", new AutoHybrid(drivetrain, arm, Constants.Auto.highCube.withPolePosition(PolePosition.CENTER), intake));
-        manager.addDefaultAuto("DoNothing", new InstantCommand(), null);
+        manager.addAuto("ScoreHighCube", () -> new AutoCube(robot.drivetrain, robot.arm, Constants.Auto.highCube.withPolePosition(PolePosition.CENTER), robot.intake, null, false));
+        manager.addAuto("ScoreMidCube", () -> new AutoHybrid(robot.drivetrain, robot.arm, Constants.Auto.highCube.withPolePosition(PolePosition.CENTER), robot.intake));
+        manager.addDefaultAuto("DoNothing", InstantCommand::new);
     }
 
     public Command getAutonomousCommand() {
@@ -1,21 +1,36 @@
 package org.team1540.robot2023.commands.arm;
 
 import com.ctre.phoenix.motorcontrol.ControlMode;
+import com.ctre.phoenix.motorcontrol.DemandType;
 import com.ctre.phoenix.motorcontrol.NeutralMode;
+import com.ctre.phoenix.motorcontrol.StatusFrameEnhanced;
 import com.ctre.phoenix.motorcontrol.StatorCurrentLimitConfiguration;
 import com.ctre.phoenix.motorcontrol.can.TalonFX;
 import com.ctre.phoenix.sensors.WPI_Pigeon2;
 import com.revrobotics.*;
 import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.DataLogManager;
 import edu.wpi.first.wpilibj.DutyCycleEncoder;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj.Filesystem;
+import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import org.team1540.lib.math.Conversions;
+import org.team1540.lib.util.InputLog;
+import org.team1540.lib.util.LoopProfiler;
+import org.team1540.lib.util.TelemetryBus;
+import org.team1540.lib.util.TelemetryBus.BooleanSignal;
+import org.team1540.lib.util.TelemetryBus.DoubleSignal;
+import org.team1540.lib.util.TelemetryBus.Priority;
 import org.team1540.robot2023.Constants.ArmConstants;
 import org.team1540.robot2023.utils.ArmState;
 import org.team1540.robot2023.utils.ChickEncoder;
+import org.team1540.robot2023.utils.PivotGravityGains;
+
+import java.io.IOException;
 
 public class Arm extends SubsystemBase {
+    private static final int PERIODIC_SECTION = LoopProfiler.getInstance().addSection("Arm.periodic");
+
     private final TalonFX pivot1 = new TalonFX(ArmConstants.PIVOT1_ID);
     private final TalonFX pivot2 = new TalonFX(ArmConstants.PIVOT2_ID);
     private final ChickEncoder pivotEncoder = new ChickEncoder(
@@ -33,11 +48,35 @@ public class Arm extends SubsystemBase {
     private final SparkMaxLimitSwitch telescopeLimitSwitch = telescope.getReverseLimitSwitch(SparkMaxLimitSwitch.Type.kNormallyOpen);
 
     private final WPI_Pigeon2 pigeon2 = new WPI_Pigeon2(ArmConstants.PIGEON_ID);
-
-    private double pivotAccel;
+    // Sensor readings come from here instead of the hardware above, so they can be logged and replayed
+    private final ArmIO.Inputs inputs = new ArmIO.Inputs();
+    private final ArmIO io;
+
+    private final DoubleSignal timeToRotationSignal = TelemetryBus.getInstance().addDouble("arm/timeToRotation", Priority.LOW, 10);
+    private final DoubleSignal timeToExtensionSignal = TelemetryBus.getInstance().addDouble("arm/timeToExtension", Priority.LOW, 10);
+    private final DoubleSignal pigeonRollSignal = TelemetryBus.getInstance().addDouble("arm/pigeonRoll", Priority.LOW, 10);
+    private final DoubleSignal pivotAngleSignal = TelemetryBus.getInstance().addDouble("arm/pivotAngleDegrees", Priority.NORMAL, 25);
+    private final DoubleSignal extensionSignal = TelemetryBus.getInstance().addDouble("arm/extension", Priority.NORMAL, 25);
+    private final DoubleSignal pivotEncoderSignal = TelemetryBus.getInstance().addDouble("arm/pivotEncoder", Priority.LOW, 10);
+    private final BooleanSignal limitSignal = TelemetryBus.getInstance().addBoolean("arm/limit", Priority.NORMAL, 25);
+    private final DoubleSignal xPosSignal = TelemetryBus.getInstance().addDouble("arm/Xpos", Priority.LOW, 10);
+    private final DoubleSignal yPosSignal = TelemetryBus.getInstance().addDouble("arm/Ypos", Priority.LOW, 10);
+    private final DoubleSignal extensionRotsSignal = TelemetryBus.getInstance().addDouble("arm/extensionRots", Priority.LOW, 10);
+    private final BooleanSignal isLegalSignal = TelemetryBus.getInstance().addBoolean("arm/isLegal", Priority.NORMAL, 25);
+    private final DoubleSignal maxExtensionSignal = TelemetryBus.getInstance().addDouble("arm/maxExtension", Priority.LOW, 10);
+    private final DoubleSignal pivotFeedforwardSignal = TelemetryBus.getInstance().addDouble("arm/pivotFeedforward", Priority.LOW, 10);
+    private final DoubleSignal cartesianAngleSignal = TelemetryBus.getInstance().addDouble("arm/cartesianAngle", Priority.LOW, 10);
+    private final DoubleSignal absoluteEncoderSignal = TelemetryBus.getInstance().addDouble("arm/absoluteEncoder", Priority.LOW, 10);
+    private final DoubleSignal pigeonAccelXSignal = TelemetryBus.getInstance().addDouble("arm/pigeonAccelX", Priority.LOW, 10);
+
+    private final PivotGravityGains pivotGravity;
+    private double pivotAccel = ArmConstants.PIVOT_MAX_ACCEL;
+    // The current Motion Magic target, or null if the pivot isn't being position controlled
+    private Rotation2d pivotSetpoint = null;
 
     public Arm() {
 //        telescope.restoreFactoryDefaults();
+        pivotGravity = loadPivotGravity();
 
         pivot1.configStatorCurrentLimit(new StatorCurrentLimitConfiguration(true, 60, 60, 0));
         pivot2.configStatorCurrentLimit(new StatorCurrentLimitConfiguration(true, 60, 60, 0));
@@ -75,6 +114,10 @@ public class Arm extends SubsystemBase {
 
         pigeon2.configMountPose(ArmConstants.PIGEON_MNT_YAW, ArmConstants.PIGEON_MNT_PITCH, ArmConstants.PIGEON_MNT_ROLL);
 
+        io = new ArmIOHardware(pivot1, pivot2, pivotEncoder, absEncoder, telescope, telescopeEncoder,
+                telescopeLimitSwitch, pigeon2);
+        InputLog.getInstance().register("Arm", inputs, io::updateInputs);
+
         smashDartboardInit();
     }
 
@@ -84,37 +127,37 @@ public class Arm extends SubsystemBase {
 
     public double timeToRotation(Rotation2d rotation2d){
         double setpoint = Conversions.degreesToFalcon(rotation2d.getDegrees(), ArmConstants.PIVOT_GEAR_RATIO);
-        double distance = Math.abs(setpoint - pivot1.getSelectedSensorPosition());
+        double distance = Math.abs(setpoint - inputs.pivot1Position);
         double timeToAccelerate = ArmConstants.PIVOT_CRUISE_SPEED/(pivotAccel);
         boolean isAProfile = distance <=
                 timeToAccelerate * ArmConstants.PIVOT_CRUISE_SPEED*10;
         if(!isAProfile){
             double value = (distance - (timeToAccelerate * ArmConstants.PIVOT_CRUISE_SPEED * 10))
                     / (ArmConstants.PIVOT_CRUISE_SPEED * 10) + (2 * timeToAccelerate);
-            SmartDashboard.putNumber("arm/timeToRotation", 1000* value);
+            timeToRotationSignal.set(1000* value);
             return 1000* value;
         }
         else{
-            SmartDashboard.putNumber("arm/timeToRotation", 1000*(2*Math.sqrt(distance/(pivotAccel*10))));
+            timeToRotationSignal.set(1000*(2*Math.sqrt(distance/(pivotAccel*10))));
             return 1000*(2*Math.sqrt(distance/(pivotAccel*10)));
         }
     }
 
     public double timeToExtension(double extension){
         double setpoint = (extension - ArmConstants.ARM_BASE_LENGTH) * ArmConstants.EXT_GEAR_RATIO / ArmConstants.EXT_ROTS_TO_INCHES;
-        double distance = Math.abs(setpoint - telescopeEncoder.getPosition());
+        double distance = Math.abs(setpoint - inputs.telescopePosition);
         double timeToAccelerate = (ArmConstants.TELESCOPE_CRUISE_SPEED/60)/((ArmConstants.TELESCOPE_MAX_ACCEL/60));
         boolean isAProfile = distance <=
                 timeToAccelerate * (ArmConstants.TELESCOPE_CRUISE_SPEED/60);
         if(!isAProfile){
             double value = 1000 * ((distance - timeToAccelerate * (ArmConstants.TELESCOPE_CRUISE_SPEED / 60))
                     / (ArmConstants.TELESCOPE_CRUISE_SPEED / 60) + 2 * timeToAccelerate);
-            SmartDashboard.putNumber("arm/timeToExtension", value);
+            timeToExtensionSignal.set(value);
             return value;
         }
         else{
             double value = 1000 * 2 * Math.sqrt(distance / (ArmConstants.TELESCOPE_MAX_ACCEL / 60));
-            SmartDashboard.putNumber("arm/timeToExtension", value);
+            timeToExtensionSignal.set(value);
             return value;
         }
     }
@@ -123,7 +166,7 @@ public class Arm extends SubsystemBase {
         return Math.max(timeToRotation(state.getRotation2d()) , (timeToExtension(state.getExtension())));
     }
 
-    public double getMaxExtension(Rotation2d rotation) {
+    public static double getMaxExtension(Rotation2d rotation) {
 //        double angle = Conversions.actualToCartesian(rotation).getRadians();
 //        if (angle == Math.PI / 2) return ArmConstants.MAX_LEGAL_HEIGHT;
 //        if (angle == 0 || angle == Math.PI) return ArmConstants.MAX_LEGAL_DISTANCE;
@@ -147,23 +190,103 @@ public class Arm extends SubsystemBase {
     }
 
     private Rotation2d getRotation2d() {
-        return Rotation2d.fromDegrees(
-                Conversions.falconToDegrees(
-                        (pivot1.getSelectedSensorPosition() + pivot2.getSelectedSensorPosition())/2,
-                        ArmConstants.PIVOT_GEAR_RATIO)
-        );
+        return Rotation2d.fromDegrees(pivotToDegrees((inputs.pivot1Position + inputs.pivot2Position)/2));
     }
 
     private double getExtension() {
-        return telescopeEncoder.getPosition() * ArmConstants.EXT_ROTS_TO_INCHES / ArmConstants.EXT_GEAR_RATIO + ArmConstants.ARM_BASE_LENGTH;
+        return telescopeToInches(inputs.telescopePosition);
+    }
+
+    private static double pivotToDegrees(double falconPosition) {
+        return Conversions.falconToDegrees(falconPosition, ArmConstants.PIVOT_GEAR_RATIO);
+    }
+
+    private static double pivotToDegreesPerSecond(double falconVelocity) {
+        return Conversions.falconToDegrees(falconVelocity * 10, ArmConstants.PIVOT_GEAR_RATIO);
+    }
+
+    private static double telescopeToInches(double rotations) {
+        return rotations * ArmConstants.EXT_ROTS_TO_INCHES / ArmConstants.EXT_GEAR_RATIO + ArmConstants.ARM_BASE_LENGTH;
+    }
+
+    private static double telescopeToInchesPerSecond(double rpm) {
+        return rpm / 60 * ArmConstants.EXT_ROTS_TO_INCHES / ArmConstants.EXT_GEAR_RATIO;
     }
 
     public ArmState getArmState() {
         return ArmState.fromRotationExtension(getRotation2d(), getExtension());
     }
 
+    /**
+     * @return pivot velocity in degrees per second
+     */
+    public double getRotationVelocity() {
+        return pivotToDegreesPerSecond((inputs.pivot1Velocity + inputs.pivot2Velocity) / 2);
+    }
+
+    /**
+     * @return telescope velocity in inches per second
+     */
+    public double getExtensionVelocity() {
+        return telescopeToInchesPerSecond(inputs.telescopeVelocity);
+    }
+
+    /**
+     * Reads one joint straight from the hardware, for characterization logging faster than the loop runs. Unlike
+     * every other getter this is safe to call from another thread, but it doesn't go through the input log, so
+     * nothing that controls the arm should use it.
+     *
+     * @param sample filled with {applied volts, position, velocity}, in degrees for the pivot and inches for the
+     *               telescope
+     */
+    public void readJoint(boolean isPivot, double[] sample) {
+        io.readJoint(isPivot, sample);
+        if (isPivot) {
+            sample[1] = pivotToDegrees(sample[1]);
+            sample[2] = pivotToDegreesPerSecond(sample[2]);
+        } else {
+            sample[1] = telescopeToInches(sample[1]);
+            sample[2] = telescopeToInchesPerSecond(sample[2]);
+        }
+    }
+
+    /**
+     * @return where the arm will be next loop if it keeps moving at its current velocity
+     */
+    public ArmState getPredictedArmState() {
+        return ArmState.fromRotationExtension(
+                Rotation2d.fromDegrees(getRotation2d().getDegrees() + getRotationVelocity() * TimedRobot.kDefaultPeriod),
+                getExtension() + getExtensionVelocity() * TimedRobot.kDefaultPeriod
+        );
+    }
+
+    /**
+     * Checks whether the arm will be within tolerance of a target next loop and has slowed down enough to stay there,
+     * so that whatever runs after a move can start as soon as the arm settles. Targets at or below base length only
+     * need the telescope to hit the limit switch.
+     */
+    public boolean isAtState(ArmState target, double rotationTolerance, double extensionTolerance) {
+        boolean extensionSettled = (target.getExtension() <= ArmConstants.ARM_BASE_LENGTH && getLimitSwitch())
+                || Math.abs(getExtensionVelocity()) < ArmConstants.TELESCOPE_SETTLED_VELOCITY;
+        return isPassingState(target, rotationTolerance, extensionTolerance)
+                && Math.abs(getRotationVelocity()) < ArmConstants.PIVOT_SETTLED_VELOCITY
+                && extensionSettled;
+    }
+
+    /**
+     * Checks whether the arm will be within tolerance of a target next loop, however fast it's going. This is for
+     * waypoints the arm moves on from straight away, where there's no need to wait for it to settle.
+     */
+    public boolean isPassingState(ArmState target, double rotationTolerance, double extensionTolerance) {
+        ArmState predicted = getPredictedArmState();
+        boolean rotationDone = Math.abs(predicted.getRotation2d().getDegrees() - target.getRotation2d().getDegrees()) < rotationTolerance;
+        boolean extensionDone = (target.getExtension() <= ArmConstants.ARM_BASE_LENGTH && getLimitSwitch())
+                || Math.abs(predicted.getExtension() - target.getExtension()) < extensionTolerance;
+        return rotationDone && extensionDone;
+    }
+
     public boolean getLimitSwitch() {
-        return telescopeLimitSwitch.isPressed();
+        return inputs.limitSwitch;
     }
 
     protected void setRotation(Rotation2d rotation) {
@@ -172,8 +295,53 @@ public class Arm extends SubsystemBase {
 
     protected void setRotation(Rotation2d rotation, boolean resetEncoders) {
         if (resetEncoders) resetToEncoder();
-        double angle = rotation.getDegrees();
-        pivot1.set(ControlMode.MotionMagic, Conversions.degreesToFalcon(angle, ArmConstants.PIVOT_GEAR_RATIO));
+        pivotSetpoint = rotation;
+        applyPivotSetpoint();
+    }
+
+    /**
+     * Sends the current Motion Magic setpoint along with a gravity feedforward calculated from where the arm is now.
+     * This gets called every loop so that the feedforward follows the arm as it rotates and extends.
+     */
+    private void applyPivotSetpoint() {
+        pivot1.set(
+                ControlMode.MotionMagic,
+                Conversions.degreesToFalcon(pivotSetpoint.getDegrees(), ArmConstants.PIVOT_GEAR_RATIO),
+                DemandType.ArbitraryFeedForward,
+                getPivotFeedforward()
+        );
+    }
+
+    public double getPivotFeedforward() {
+        return getPivotFeedforward(getRotation2d(), getExtension());
+    }
+
+    private static PivotGravityGains loadPivotGravity() {
+        PivotGravityGains gains;
+        try {
+            gains = PivotGravityGains.load(Filesystem.getDeployDirectory());
+        } catch (IOException e) {
+            DataLogManager.log("Couldn't read the pivot gravity gains, the feedforward is off: " + e.getMessage());
+            return PivotGravityGains.NONE;
+        }
+        if (gains.isCharacterized()) {
+            DataLogManager.log(String.format("Pivot gravity feedforward kG = %.5f, kGPerInch = %.6f from %s",
+                    gains.kG, gains.kGPerInch, gains.source));
+        } else {
+            DataLogManager.log("The arm hasn't been characterized, the pivot gravity feedforward is off");
+        }
+        return gains;
+    }
+
+    /**
+     * @param rotation angle of the arm in the actual angle system
+     * @param extension length of the arm in inches
+     * @return percent output needed to hold the arm against gravity, which is 0 until the arm has been characterized
+     */
+    public double getPivotFeedforward(Rotation2d rotation, double extension) {
+        double extendedLength = Math.max(extension - ArmConstants.ARM_BASE_LENGTH, 0);
+        return Math.cos(Conversions.actualToCartesian(rotation).getRadians())
+                * (pivotGravity.kG + pivotGravity.kGPerInch * extendedLength);
     }
 
     protected void setExtension(double extension) {
@@ -185,17 +353,16 @@ public class Arm extends SubsystemBase {
     }
 
     public void stopAll() {
+        pivotSetpoint = null;
         pivot1.set(ControlMode.PercentOutput, 0);
         telescope.set(0);
     }
 
     public Rotation2d getGyroAngle() {
-        short[] pigeonAccel = new short[3];
-        pigeon2.getBiasedAccelerometer(pigeonAccel);
         double pigeonRoll;
-        if (pigeonAccel[0] > 0) {
-            pigeonRoll = pigeon2.getRoll() > 0 ? pigeon2.getRoll() - 180 : pigeon2.getRoll() + 180;
-        } else pigeonRoll = pigeon2.getRoll();
+        if (inputs.pigeonAccelX > 0) {
+            pigeonRoll = inputs.pigeonRoll > 0 ? inputs.pigeonRoll - 180 : inputs.pigeonRoll + 180;
+        } else pigeonRoll = inputs.pigeonRoll;
         return Rotation2d.fromDegrees(pigeonRoll + ArmConstants.PIGEON_OFFSET);
     }
 
@@ -212,18 +379,20 @@ public class Arm extends SubsystemBase {
 //                        ArmConstants.PIVOT_GEAR_RATIO
 //                )
 //        );
-        pivotEncoder.setPosition(getGyroAngle());
+        // The encoder won't show the new position in the inputs until next loop, so this uses the angle directly
+        Rotation2d angle = getGyroAngle();
+        pivotEncoder.setPosition(angle);
         pivot1.setSelectedSensorPosition(
-                Conversions.degreesToFalcon(pivotEncoder.getDegrees(), ArmConstants.PIVOT_GEAR_RATIO)
+                Conversions.degreesToFalcon(angle.getDegrees(), ArmConstants.PIVOT_GEAR_RATIO)
         );
     }
 
     public void resetToEncoder() {
         pivot1.setSelectedSensorPosition(
-                Conversions.degreesToFalcon(pivotEncoder.getDegrees(), ArmConstants.PIVOT_GEAR_RATIO)
+                Conversions.degreesToFalcon(inputs.pivotEncoderDegrees, ArmConstants.PIVOT_GEAR_RATIO)
         );
         pivot2.setSelectedSensorPosition(
-                Conversions.degreesToFalcon(pivotEncoder.getDegrees(), ArmConstants.PIVOT_GEAR_RATIO)
+                Conversions.degreesToFalcon(inputs.pivotEncoderDegrees, ArmConstants.PIVOT_GEAR_RATIO)
         );
     }
 
@@ -233,20 +402,49 @@ public class Arm extends SubsystemBase {
     }
 
     public double getExtendingSpeed() {
-        return telescopeEncoder.getVelocity();
+        return inputs.telescopeVelocity;
     }
 
     public void setRotatingSpeed(double speed) {
+        pivotSetpoint = null;
         pivot1.set(ControlMode.PercentOutput, speed);
     }
 
     public double getRotationSpeed() {
         return Conversions.falconToRPM(
-                (pivot1.getSelectedSensorVelocity() + pivot2.getSelectedSensorVelocity()) / 2,
+                (inputs.pivot1Velocity + inputs.pivot2Velocity) / 2,
                 1
         );
     }
 
+    public void setPivotVoltage(double volts) {
+        setRotatingSpeed(volts / inputs.batteryVolts);
+    }
+
+    public double getPivotVoltage() {
+        return inputs.pivotAppliedVolts;
+    }
+
+    public void setTelescopeVoltage(double volts) {
+        telescope.setVoltage(volts);
+    }
+
+    public double getTelescopeVoltage() {
+        return inputs.telescopeAppliedVolts;
+    }
+
+    /**
+     * Speeds up the position and velocity status frames so characterization can log every change. These cost CAN
+     * bandwidth, so they should be turned back off afterwards.
+     */
+    public void setFastStatusFrames(boolean fast) {
+        int period = fast ? 5 : 20;
+        pivot1.setStatusFramePeriod(StatusFrameEnhanced.Status_2_Feedback0, period);
+        pivot2.setStatusFramePeriod(StatusFrameEnhanced.Status_2_Feedback0, period);
+        telescope.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus1, period);
+        telescope.setPeriodicFramePeriod(CANSparkMaxLowLevel.PeriodicFrame.kStatus2, period);
+    }
+
     public void setRotationNeutralMode(NeutralMode mode){
         pivot1.setNeutralMode(mode);
         pivot2.setNeutralMode(mode);
@@ -259,6 +457,15 @@ public class Arm extends SubsystemBase {
         setRotation(getRotation2d(), false);
     }
 
+    /**
+     * Motion Magic acceleration for a move ending at the given extension, backing off for the extra inertia and sag of
+     * a longer arm. This stays the same whether or not the gravity feedforward has been characterized.
+     */
+    public static double getPivotAccelForExtension(double extension) {
+        double extensionPercent = (extension - ArmConstants.ARM_BASE_LENGTH) / (ArmConstants.ARM_LENGTH_EXT - ArmConstants.ARM_BASE_LENGTH);
+        return ArmConstants.PIVOT_MAX_ACCEL * (1 - 0.5 * extensionPercent);
+    }
+
     public void setPivotAccel(double pivotAccel){
         pivot1.configMotionAcceleration(pivotAccel);
         this.pivotAccel = pivotAccel;
@@ -273,27 +480,29 @@ public class Arm extends SubsystemBase {
 
 
     private void smashDartboard() {
-        SmartDashboard.putNumber("arm/pigeonRoll", getGyroAngle().getDegrees());
-        SmartDashboard.putNumber("arm/pivotAngleDegrees", getRotation2d().getDegrees());
-        SmartDashboard.putNumber("arm/extension", getExtension());
-        SmartDashboard.putNumber("arm/pivotEncoder", pivotEncoder.getDegrees());
-        SmartDashboard.putBoolean("arm/limit", getLimitSwitch());
-        SmartDashboard.putNumber("arm/Xpos", getArmState().getX());
-        SmartDashboard.putNumber("arm/Ypos", getArmState().getY());
-        SmartDashboard.putNumber("arm/extensionRots", telescopeEncoder.getPosition());
-        SmartDashboard.putBoolean("arm/isLegal", getExtension() < getMaxExtension());
-        SmartDashboard.putNumber("arm/maxExtension", getMaxExtension());
-        SmartDashboard.putNumber("arm/cartesianAngle", Conversions.actualToCartesian(getRotation2d()).getDegrees());
-        SmartDashboard.putNumber("arm/absoluteEncoder", absEncoder.getAbsolutePosition() * 360);
-        short[] pigeonAccel = new short[3];
-        pigeon2.getBiasedAccelerometer(pigeonAccel);
-        SmartDashboard.putNumber("arm/pigeonAccelX", pigeonAccel[0]);
+        pigeonRollSignal.set(getGyroAngle().getDegrees());
+        pivotAngleSignal.set(getRotation2d().getDegrees());
+        extensionSignal.set(getExtension());
+        pivotEncoderSignal.set(inputs.pivotEncoderDegrees);
+        limitSignal.set(getLimitSwitch());
+        xPosSignal.set(getArmState().getX());
+        yPosSignal.set(getArmState().getY());
+        extensionRotsSignal.set(inputs.telescopePosition);
+        isLegalSignal.set(getExtension() < getMaxExtension());
+        maxExtensionSignal.set(getMaxExtension());
+        pivotFeedforwardSignal.set(getPivotFeedforward());
+        cartesianAngleSignal.set(Conversions.actualToCartesian(getRotation2d()).getDegrees());
+        absoluteEncoderSignal.set(inputs.absoluteEncoderPosition * 360);
+        pigeonAccelXSignal.set(inputs.pigeonAccelX);
     }
 
     @Override
     public void periodic() {
+        long start = LoopProfiler.getInstance().start();
 //        if(!isManualControl) limitArmExtension();
         if (getLimitSwitch()) telescopeEncoder.setPosition(0);
+        if (pivotSetpoint != null) applyPivotSetpoint();
         smashDartboard();
+        LoopProfiler.getInstance().stop(PERIODIC_SECTION, start);
     }
 }
@@ -0,0 +1,184 @@
+package org.team1540.robot2023.commands.arm;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.util.datalog.DoubleArrayLogEntry;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
+import org.team1540.robot2023.Constants.ArmConstants;
+import org.team1540.robot2023.utils.ArmCharacterizationFitter;
+import org.team1540.robot2023.utils.ArmState;
+
+/**
+ * Runs quasistatic and dynamic voltage tests on the pivot at several extensions and on the telescope, logging every
+ * sample to the DataLog for {@link ArmCharacterizationFitter}. The arm sweeps almost its whole range, so only run
+ * this on a robot that's up on a cart with nothing around it.
+ */
+public class ArmCharacterizationCommand extends SequentialCommandGroup {
+    public static final String PIVOT_LOG_ENTRY = "CUSTOM:armCharacterization/pivot";
+    public static final String TELESCOPE_LOG_ENTRY = "CUSTOM:armCharacterization/telescope";
+
+    private static final double[] PIVOT_TEST_EXTENSIONS = {ArmConstants.ARM_BASE_LENGTH, 45, 56, ArmConstants.ARM_MAX_EXTENSION};
+    // The pivot sweeps between these, just below horizontal on both sides
+    private static final double PIVOT_MIN_ANGLE = -95;
+    private static final double PIVOT_MAX_ANGLE = 95;
+    // Straight up so gravity acts entirely along the telescope
+    private static final double TELESCOPE_TEST_ANGLE = 0;
+    private static final double TELESCOPE_MIN_EXTENSION = ArmConstants.ARM_BASE_LENGTH + 2;
+    private static final double TELESCOPE_MAX_EXTENSION = ArmConstants.ARM_MAX_EXTENSION - 2;
+
+    private static final double QUASISTATIC_RAMP = 0.5; // volts per second
+    private static final double PIVOT_DYNAMIC_VOLTAGE = 4;
+    private static final double TELESCOPE_DYNAMIC_VOLTAGE = 3;
+    // Tests stop early past these so the arm can't get going too fast once gravity starts helping
+    private static final double PIVOT_MAX_VELOCITY = 150; // degrees per second
+    private static final double TELESCOPE_MAX_VELOCITY = 40; // inches per second
+    // Tests also stop if gravity carries the arm this far the wrong way, like a pivot ramp starting near horizontal
+    private static final double PIVOT_REVERSE_MARGIN = 5; // degrees
+    private static final double TELESCOPE_REVERSE_MARGIN = 1; // inches
+    private static final double TEST_TIMEOUT = 15;
+    private static final double LOG_PERIOD = 0.005;
+
+    private final DoubleArrayLogEntry pivotLog = new DoubleArrayLogEntry(DataLogManager.getLog(), PIVOT_LOG_ENTRY);
+    private final DoubleArrayLogEntry telescopeLog = new DoubleArrayLogEntry(DataLogManager.getLog(), TELESCOPE_LOG_ENTRY);
+    // One logger shared by all the tests, since each Notifier gets its own thread
+    private final Notifier logger = new Notifier(this::logSample);
+    private volatile VoltageTest activeTest = null;
+    private int testCount = 0;
+
+    public ArmCharacterizationCommand(Arm arm) {
+        for (double extension : PIVOT_TEST_EXTENSIONS) {
+            ArmState min = ArmState.fromRotationExtension(Rotation2d.fromDegrees(PIVOT_MIN_ANGLE), extension);
+            ArmState max = ArmState.fromRotationExtension(Rotation2d.fromDegrees(PIVOT_MAX_ANGLE), extension);
+            addCommands(
+                    new ArmPathCommand(arm, min),
+                    new VoltageTest(arm, true, true, 1, extension),
+                    new ArmPathCommand(arm, max, false),
+                    new VoltageTest(arm, true, true, -1, extension),
+                    new ArmPathCommand(arm, min, false),
+                    new VoltageTest(arm, true, false, 1, extension),
+                    new ArmPathCommand(arm, max, false),
+                    new VoltageTest(arm, true, false, -1, extension)
+            );
+        }
+        ArmState retracted = ArmState.fromRotationExtension(Rotation2d.fromDegrees(TELESCOPE_TEST_ANGLE), TELESCOPE_MIN_EXTENSION);
+        ArmState extended = ArmState.fromRotationExtension(Rotation2d.fromDegrees(TELESCOPE_TEST_ANGLE), TELESCOPE_MAX_EXTENSION);
+        addCommands(
+                new ArmPathCommand(arm, retracted, false),
+                new VoltageTest(arm, false, true, 1, TELESCOPE_TEST_ANGLE),
+                new ArmPathCommand(arm, extended, false),
+                new VoltageTest(arm, false, true, -1, TELESCOPE_TEST_ANGLE),
+                new ArmPathCommand(arm, retracted, false),
+                new VoltageTest(arm, false, false, 1, TELESCOPE_TEST_ANGLE),
+                new ArmPathCommand(arm, extended, false),
+                new VoltageTest(arm, false, false, -1, TELESCOPE_TEST_ANGLE),
+                new ResetArmPositionCommand(arm)
+        );
+    }
+
+    private void logSample() {
+        VoltageTest test = activeTest;
+        if (test != null) test.logSample();
+    }
+
+    /**
+     * Applies either a slowly ramping or a constant voltage to one joint until it reaches the end of its range. Each
+     * sample is logged as {test number, other joint setpoint, applied voltage, position, velocity}, in degrees for the
+     * pivot and inches for the telescope.
+     */
+    private class VoltageTest extends CommandBase {
+        private final Arm arm;
+        private final boolean isPivot;
+        private final boolean isQuasistatic;
+        private final double direction;
+        private final double otherJointSetpoint;
+        private final int testNumber;
+
+        // Only touched by the logger thread
+        private final double[] reading = new double[3];
+        private final double[] sample = new double[5];
+
+        private double startTime;
+        private double startPosition;
+
+        VoltageTest(Arm arm, boolean isPivot, boolean isQuasistatic, double direction, double otherJointSetpoint) {
+            this.arm = arm;
+            this.isPivot = isPivot;
+            this.isQuasistatic = isQuasistatic;
+            this.direction = direction;
+            this.otherJointSetpoint = otherJointSetpoint;
+            this.testNumber = testCount++;
+            addRequirements(arm);
+        }
+
+        @Override
+        public void initialize() {
+            arm.setFastStatusFrames(true);
+            startTime = Timer.getFPGATimestamp();
+            startPosition = getPosition();
+            activeTest = this;
+            logger.startPeriodic(LOG_PERIOD);
+        }
+
+        @Override
+        public void execute() {
+            double elapsed = Timer.getFPGATimestamp() - startTime;
+            double dynamicVoltage = isPivot ? PIVOT_DYNAMIC_VOLTAGE : TELESCOPE_DYNAMIC_VOLTAGE;
+            setVoltage(direction * (isQuasistatic ? QUASISTATIC_RAMP * elapsed : dynamicVoltage));
+        }
+
+        private void setVoltage(double volts) {
+            if (isPivot) arm.setPivotVoltage(volts);
+            else arm.setTelescopeVoltage(volts);
+        }
+
+        private double getPosition() {
+            return isPivot ? arm.getArmState().getRotation2d().getDegrees() : arm.getArmState().getExtension();
+        }
+
+        private double getVelocity() {
+            return isPivot ? arm.getRotationVelocity() : arm.getExtensionVelocity();
+        }
+
+        /**
+         * Runs on the logger's thread, so this reads the motors directly. The arm's inputs only update once a loop,
+         * which would log each reading several times over.
+         */
+        private void logSample() {
+            arm.readJoint(isPivot, reading);
+            sample[0] = testNumber;
+            sample[1] = otherJointSetpoint;
+            System.arraycopy(reading, 0, sample, 2, reading.length);
+            (isPivot ? pivotLog : telescopeLog).append(sample);
+        }
+
+        @Override
+        public boolean isFinished() {
+            double position = getPosition();
+            double min = isPivot ? PIVOT_MIN_ANGLE : TELESCOPE_MIN_EXTENSION;
+            double max = isPivot ? PIVOT_MAX_ANGLE : TELESCOPE_MAX_EXTENSION;
+            double maxVelocity = isPivot ? PIVOT_MAX_VELOCITY : TELESCOPE_MAX_VELOCITY;
+            double reverseMargin = isPivot ? PIVOT_REVERSE_MARGIN : TELESCOPE_REVERSE_MARGIN;
+            boolean pastEnd = direction > 0 ? position >= max : position <= min;
+            // Gravity can carry the arm the other way, so the end it started at counts too, with some slack since the
+            // test starts right on it
+            boolean pastStart = direction > 0 ? position <= min - reverseMargin : position >= max + reverseMargin;
+            boolean movingBackwards = direction * (position - startPosition) < -reverseMargin;
+            return pastEnd
+                    || pastStart
+                    || movingBackwards
+                    || Math.abs(getVelocity()) > maxVelocity
+                    || Timer.getFPGATimestamp() - startTime > TEST_TIMEOUT;
+        }
+
+        @Override
+        public void end(boolean interrupted) {
+            logger.stop();
+            activeTest = null;
+            setVoltage(0);
+            arm.setFastStatusFrames(false);
+        }
+    }
+}
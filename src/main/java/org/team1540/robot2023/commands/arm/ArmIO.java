@@ -0,0 +1,76 @@
+package org.team1540.robot2023.commands.arm;
+
+import org.team1540.lib.util.InputLog;
+
+/**
+ * Everything the arm reads from its motors and sensors, in the units the devices report
+ */
+public interface ArmIO {
+    class Inputs implements InputLog.LoggableInputs {
+        // Falcon sensor units and units per 100ms
+        public double pivot1Position = 0;
+        public double pivot2Position = 0;
+        public double pivot1Velocity = 0;
+        public double pivot2Velocity = 0;
+        public double pivotAppliedVolts = 0;
+        public double pivotEncoderDegrees = 0;
+        // Rotations, from 0 to 1
+        public double absoluteEncoderPosition = 0;
+
+        // Motor rotations and RPM
+        public double telescopePosition = 0;
+        public double telescopeVelocity = 0;
+        public double telescopeAppliedVolts = 0;
+        public boolean limitSwitch = false;
+
+        public double pigeonRoll = 0;
+        public double pigeonAccelX = 0;
+        public double batteryVolts = 12;
+
+        @Override
+        public void toLog(InputLog.Table table) {
+            table.put("pivot1Position", pivot1Position);
+            table.put("pivot2Position", pivot2Position);
+            table.put("pivot1Velocity", pivot1Velocity);
+            table.put("pivot2Velocity", pivot2Velocity);
+            table.put("pivotAppliedVolts", pivotAppliedVolts);
+            table.put("pivotEncoderDegrees", pivotEncoderDegrees);
+            table.put("absoluteEncoderPosition", absoluteEncoderPosition);
+            table.put("telescopePosition", telescopePosition);
+            table.put("telescopeVelocity", telescopeVelocity);
+            table.put("telescopeAppliedVolts", telescopeAppliedVolts);
+            table.put("limitSwitch", limitSwitch);
+            table.put("pigeonRoll", pigeonRoll);
+            table.put("pigeonAccelX", pigeonAccelX);
+            table.put("batteryVolts", batteryVolts);
+        }
+
+        @Override
+        public void fromLog(InputLog.Table table) {
+            pivot1Position = table.get("pivot1Position", pivot1Position);
+            pivot2Position = table.get("pivot2Position", pivot2Position);
+            pivot1Velocity = table.get("pivot1Velocity", pivot1Velocity);
+            pivot2Velocity = table.get("pivot2Velocity", pivot2Velocity);
+            pivotAppliedVolts = table.get("pivotAppliedVolts", pivotAppliedVolts);
+            pivotEncoderDegrees = table.get("pivotEncoderDegrees", pivotEncoderDegrees);
+            absoluteEncoderPosition = table.get("absoluteEncoderPosition", absoluteEncoderPosition);
+            telescopePosition = table.get("telescopePosition", telescopePosition);
+            telescopeVelocity = table.get("telescopeVelocity", telescopeVelocity);
+            telescopeAppliedVolts = table.get("telescopeAppliedVolts", telescopeAppliedVolts);
+            limitSwitch = table.get("limitSwitch", limitSwitch);
+            pigeonRoll = table.get("pigeonRoll", pigeonRoll);
+            pigeonAccelX = table.get("pigeonAccelX", pigeonAccelX);
+            batteryVolts = table.get("batteryVolts", batteryVolts);
+        }
+    }
+
+    void updateInputs(Inputs inputs);
+
+    /**
+     * Reads one joint straight from the hardware instead of through the inputs, for logging faster than the loop runs.
+     * It's called from another thread, so it must only read.
+     *
+     * @param sample filled with {applied volts, position, velocity}, in the same units as the inputs
+     */
+    void readJoint(boolean isPivot, double[] sample);
+}
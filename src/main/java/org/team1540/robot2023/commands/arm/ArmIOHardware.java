@@ -0,0 +1,69 @@
+package org.team1540.robot2023.commands.arm;
+
+import com.ctre.phoenix.motorcontrol.can.TalonFX;
+import com.ctre.phoenix.sensors.WPI_Pigeon2;
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.RelativeEncoder;
+import com.revrobotics.SparkMaxLimitSwitch;
+import edu.wpi.first.wpilibj.DutyCycleEncoder;
+import edu.wpi.first.wpilibj.RobotController;
+import org.team1540.robot2023.utils.ChickEncoder;
+
+public class ArmIOHardware implements ArmIO {
+    private final TalonFX pivot1;
+    private final TalonFX pivot2;
+    private final ChickEncoder pivotEncoder;
+    private final DutyCycleEncoder absEncoder;
+    private final CANSparkMax telescope;
+    private final RelativeEncoder telescopeEncoder;
+    private final SparkMaxLimitSwitch telescopeLimitSwitch;
+    private final WPI_Pigeon2 pigeon2;
+    private final short[] pigeonAccel = new short[3];
+
+    public ArmIOHardware(TalonFX pivot1, TalonFX pivot2, ChickEncoder pivotEncoder, DutyCycleEncoder absEncoder,
+                         CANSparkMax telescope, RelativeEncoder telescopeEncoder,
+                         SparkMaxLimitSwitch telescopeLimitSwitch, WPI_Pigeon2 pigeon2) {
+        this.pivot1 = pivot1;
+        this.pivot2 = pivot2;
+        this.pivotEncoder = pivotEncoder;
+        this.absEncoder = absEncoder;
+        this.telescope = telescope;
+        this.telescopeEncoder = telescopeEncoder;
+        this.telescopeLimitSwitch = telescopeLimitSwitch;
+        this.pigeon2 = pigeon2;
+    }
+
+    @Override
+    public void updateInputs(Inputs inputs) {
+        inputs.pivot1Position = pivot1.getSelectedSensorPosition();
+        inputs.pivot2Position = pivot2.getSelectedSensorPosition();
+        inputs.pivot1Velocity = pivot1.getSelectedSensorVelocity();
+        inputs.pivot2Velocity = pivot2.getSelectedSensorVelocity();
+        inputs.pivotAppliedVolts = pivot1.getMotorOutputVoltage();
+        inputs.pivotEncoderDegrees = pivotEncoder.getDegrees();
+        inputs.absoluteEncoderPosition = absEncoder.getAbsolutePosition();
+
+        inputs.telescopePosition = telescopeEncoder.getPosition();
+        inputs.telescopeVelocity = telescopeEncoder.getVelocity();
+        inputs.telescopeAppliedVolts = telescope.getAppliedOutput() * telescope.getBusVoltage();
+        inputs.limitSwitch = telescopeLimitSwitch.isPressed();
+
+        inputs.pigeonRoll = pigeon2.getRoll();
+        pigeon2.getBiasedAccelerometer(pigeonAccel);
+        inputs.pigeonAccelX = pigeonAccel[0];
+        inputs.batteryVolts = RobotController.getBatteryVoltage();
+    }
+
+    @Override
+    public void readJoint(boolean isPivot, double[] sample) {
+        if (isPivot) {
+            sample[0] = pivot1.getMotorOutputVoltage();
+            sample[1] = (pivot1.getSelectedSensorPosition() + pivot2.getSelectedSensorPosition()) / 2;
+            sample[2] = (pivot1.getSelectedSensorVelocity() + pivot2.getSelectedSensorVelocity()) / 2;
+        } else {
+            sample[0] = telescope.getAppliedOutput() * telescope.getBusVoltage();
+            sample[1] = telescopeEncoder.getPosition();
+            sample[2] = telescopeEncoder.getVelocity();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.team1540.robot2023.commands.arm;
+
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import org.team1540.robot2023.utils.ArmPathPlanner;
+import org.team1540.robot2023.utils.ArmState;
+
+/**
+ * Moves the arm to a setpoint along the path from {@link ArmPathPlanner}, moving both joints together between waypoints
+ */
+public class ArmPathCommand extends CommandBase {
+    private final Arm arm;
+    private final ArmState setpoint;
+    private final boolean shouldZero;
+    private final ArmWaypointFollower follower;
+    private boolean isDone;
+
+    public ArmPathCommand(Arm arm, ArmState setpoint) {
+        this(arm, setpoint, true);
+    }
+
+    public ArmPathCommand(Arm arm, ArmState setpoint, boolean shouldZero) {
+        this.arm = arm;
+        this.setpoint = setpoint;
+        this.shouldZero = shouldZero;
+        this.follower = new ArmWaypointFollower(arm, 1, 0.5);
+        addRequirements(arm);
+    }
+
+    @Override
+    public void initialize() {
+        if (shouldZero) {
+            arm.resetToEncoder();
+        }
+        follower.start(ArmPathPlanner.getInstance().getPath(arm.getArmState(), setpoint), true);
+        isDone = false;
+    }
+
+    @Override
+    public void execute() {
+        isDone = follower.update();
+    }
+
+    @Override
+    public boolean isFinished() {
+        return isDone;
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        if (interrupted) {
+            arm.stopAll();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.team1540.robot2023.commands.arm;
+
+import edu.wpi.first.wpilibj.Timer;
+import org.team1540.robot2023.utils.ArmPathPlanner;
+import org.team1540.robot2023.utils.ArmState;
+
+import java.util.List;
+
+/**
+ * Moves the arm through waypoints from {@link ArmPathPlanner}, both joints together, going on to the next one as soon
+ * as the arm is about to reach the current one or its estimated move time runs out. Commands that end with a move of
+ * their own use this to get clear of anything in the way first, and don't need the arm to settle at the last waypoint.
+ */
+class ArmWaypointFollower {
+    private final Arm arm;
+    private final double rotationThreshold;
+    private final double extensionThreshold;
+
+    private List<ArmState> waypoints = List.of();
+    private boolean settleAtEnd;
+    private int waypointIndex;
+    private ArmState waypoint;
+    // FPGA timestamp in seconds
+    private double waypointEndTime;
+
+    ArmWaypointFollower(Arm arm, double rotationThreshold, double extensionThreshold) {
+        this.arm = arm;
+        this.rotationThreshold = rotationThreshold;
+        this.extensionThreshold = extensionThreshold;
+    }
+
+    /**
+     * @param settleAtEnd whether the arm has to slow down at the last waypoint before it counts as reached
+     */
+    void start(List<ArmState> waypoints, boolean settleAtEnd) {
+        this.waypoints = waypoints;
+        this.settleAtEnd = settleAtEnd;
+        waypointIndex = -1;
+        waypoint = arm.getArmState();
+        if (!waypoints.isEmpty()) nextWaypoint();
+    }
+
+    /**
+     * Call every loop after {@link #start}
+     *
+     * @return whether the arm has reached the last waypoint, which is always true if there weren't any
+     */
+    boolean update() {
+        if (waypoints.isEmpty()) return true;
+        boolean isLast = waypointIndex == waypoints.size() - 1;
+        boolean reached = (isLast && settleAtEnd
+                ? arm.isAtState(waypoint, rotationThreshold, extensionThreshold)
+                : arm.isPassingState(waypoint, rotationThreshold, extensionThreshold))
+                || Timer.getFPGATimestamp() >= waypointEndTime;
+        if (!reached) return false;
+        if (isLast) return true;
+        nextWaypoint();
+        return false;
+    }
+
+    private void nextWaypoint() {
+        waypointIndex++;
+        ArmState previous = waypoint;
+        waypoint = waypoints.get(waypointIndex);
+        arm.setPivotAccel(ArmPathPlanner.getPivotAccelUnits(previous, waypoint));
+        // Leave some slack on top of the profile time so a slow move doesn't get cut short
+        waypointEndTime = Timer.getFPGATimestamp() + ArmPathPlanner.getMoveTime(previous, waypoint) * 1.25 + 0.1;
+        arm.setRotation(waypoint.getRotation2d(), false);
+        arm.setExtension(waypoint.getExtension());
+    }
+}
@@ -1,6 +1,7 @@
 package org.team1540.robot2023.commands.arm;
 
 import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.CommandBase;
 import org.team1540.robot2023.Constants;
 import org.team1540.robot2023.utils.ArmState;
@@ -12,7 +13,8 @@ public class PivotCommand extends CommandBase {
     private boolean shouldZero;
     private final AverageFilter average = new AverageFilter(5);
     private final double threshold = 0.5;
-    private long endTime;
+    // FPGA timestamp in seconds
+    private double endTime;
 
 
     public PivotCommand(Arm arm, ArmState target) {
@@ -41,7 +43,7 @@ public class PivotCommand extends CommandBase {
         arm.setRotation(targetAngle);
         average.clear();
         arm.setExtension(arm.getArmState().getExtension());
-        endTime = (long) (0.9 * arm.timeToRotation(targetAngle) + System.currentTimeMillis() + 250);
+        endTime = Timer.getFPGATimestamp() + (0.9 * arm.timeToRotation(targetAngle) + 250) / 1000;
         arm.setPivotAccel(Constants.ArmConstants.PIVOT_MAX_ACCEL);
     }
 
@@ -53,7 +55,7 @@ public class PivotCommand extends CommandBase {
     @Override
     public boolean isFinished() {
         return (average.getAverage() < threshold && Math.abs(arm.getArmState().getRotation2d().getDegrees() - targetAngle.getDegrees()) < threshold)
-                || System.currentTimeMillis() >= endTime;
+                || Timer.getFPGATimestamp() >= endTime;
     }
 
     @Override
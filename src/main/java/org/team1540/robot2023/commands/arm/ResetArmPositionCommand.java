@@ -1,25 +1,36 @@
 package org.team1540.robot2023.commands.arm;
 
 import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.CommandBase;
+import org.team1540.lib.util.RateLimitedLog;
 import org.team1540.robot2023.Constants;
+import org.team1540.robot2023.utils.ArmPathPlanner;
 import org.team1540.robot2023.utils.ArmState;
-import org.team1540.robot2023.utils.AverageFilter;
 
+import java.util.List;
+
+/**
+ * Retracts the arm and then brings it to just in front of vertical. Like {@link SetArmPosition}, it first goes through
+ * any waypoints from {@link ArmPathPlanner} and only the last leg uses the timed retract and pivot.
+ */
 public class ResetArmPositionCommand extends CommandBase {
+    public static final ArmState RESET_STATE = ArmState.fromRotationExtension(Rotation2d.fromDegrees(-15), Constants.ArmConstants.ARM_BASE_LENGTH);
+    private static final RateLimitedLog.Site log = RateLimitedLog.site("ResetArmPositionCommand", 0);
 
     Arm arm;
     private boolean shouldZero;
     ArmState setpoint;
 
-    private final AverageFilter extensionFilter = new AverageFilter(10);
-    private final AverageFilter rotationFilter = new AverageFilter(5);
     private final double extensionThreshold = 0.25;
     private final double rotationThreshold = 0.5;
     private boolean isRotating;
-    private long pivotStartTime;
+    // FPGA timestamps in seconds
+    private double pivotStartTime;
     private double extensionDelay;
-    private long endTime;
+    private double endTime;
+    private final ArmWaypointFollower follower;
+    private boolean isFinalMove;
 
     public ResetArmPositionCommand(Arm arm) {
         this(arm, true);
@@ -27,7 +38,8 @@ public class ResetArmPositionCommand extends CommandBase {
     public ResetArmPositionCommand(Arm arm, boolean shouldZero) {
         this.arm = arm;
         this.shouldZero = shouldZero;
-        this.setpoint = ArmState.fromRotationExtension(Rotation2d.fromDegrees(-15), Constants.ArmConstants.ARM_BASE_LENGTH);
+        this.setpoint = RESET_STATE;
+        this.follower = new ArmWaypointFollower(arm, 1, 0.5);
         addRequirements(arm);
     }
 
@@ -36,39 +48,42 @@ public class ResetArmPositionCommand extends CommandBase {
         if (shouldZero) {
             arm.resetToEncoder();
         }
-       System.out.println("command start");
+        log.log("command start");
+        List<ArmState> path = ArmPathPlanner.getInstance().getPath(arm.getArmState(), setpoint);
+        follower.start(path.subList(0, path.size() - 1), false);
+        isFinalMove = false;
+        isRotating = false;
+        if (follower.update()) startFinalMove();
+    }
+
+    private void startFinalMove() {
+        isFinalMove = true;
 //        System.out.println(arm.timeToExtension(Constants.ArmConstants.ARM_BASE_LENGTH));
-        pivotStartTime = (long) (System.currentTimeMillis() + arm.timeToExtension(setpoint.getExtension())/5);
-        endTime = (long) (System.currentTimeMillis() + 0.9*arm.timeToExtension(setpoint.getExtension()));
+        pivotStartTime = Timer.getFPGATimestamp() + arm.timeToExtension(setpoint.getExtension())/5 / 1000;
+        endTime = Timer.getFPGATimestamp() + 0.9*arm.timeToExtension(setpoint.getExtension()) / 1000;
         arm.setExtension(setpoint.getExtension());
         arm.setRotation(arm.getArmState().getRotation2d());
-        isRotating = false;
-        extensionFilter.clear();
-        rotationFilter.clear();
     }
 
     @Override
     public void execute() {
+        if (!isFinalMove) {
+            if (follower.update()) startFinalMove();
+            return;
+        }
         if(!isRotating){
-            if(System.currentTimeMillis() >= pivotStartTime){
+            if(Timer.getFPGATimestamp() >= pivotStartTime){
                 isRotating = true;
                 arm.setRotation(setpoint.getRotation2d());
-                endTime = (long) Math.max(endTime, System.currentTimeMillis() + arm.timeToRotation(setpoint.getRotation2d()));
+                endTime = Math.max(endTime, Timer.getFPGATimestamp() + arm.timeToRotation(setpoint.getRotation2d()) / 1000);
             }
         }
-        extensionFilter.add(Math.abs(setpoint.getExtension() - arm.getArmState().getExtension()));
-        rotationFilter.add(Math.abs(setpoint.getRotation2d().getDegrees() - arm.getArmState().getRotation2d().getDegrees()));
     }
 
     @Override
     public boolean isFinished() {
-//        System.out.println(rotationFilter.getAverage() + "      " + Math.abs(arm.getArmState().getRotation2d().getDegrees() - setpoint.getRotation2d().getDegrees()));
-        return (
-                ((setpoint.getExtension() <= Constants.ArmConstants.ARM_BASE_LENGTH && arm.getLimitSwitch()) ||
-                        extensionFilter.getAverage() < extensionThreshold) &&
-                        (rotationFilter.getAverage() < rotationThreshold &&
-                                Math.abs(arm.getArmState().getRotation2d().getDegrees() - setpoint.getRotation2d().getDegrees()) < rotationThreshold)
-        ) || System.currentTimeMillis() > endTime;
+        return isFinalMove && ((isRotating && arm.isAtState(setpoint, rotationThreshold, extensionThreshold))
+                || Timer.getFPGATimestamp() > endTime);
     }
 
     @Override
@@ -79,6 +94,6 @@ public class ResetArmPositionCommand extends CommandBase {
         if (shouldZero) {
             arm.resetToEncoder();
         }
-        System.out.println("Command end");
+        log.log("Command end");
     }
 }
\ No newline at end of file
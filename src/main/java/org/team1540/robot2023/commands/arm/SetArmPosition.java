@@ -1,29 +1,37 @@
 package org.team1540.robot2023.commands.arm;
 
+import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj2.command.CommandBase;
-import org.team1540.robot2023.Constants.ArmConstants;
+import org.team1540.robot2023.utils.ArmPathPlanner;
 import org.team1540.robot2023.utils.ArmState;
-import org.team1540.robot2023.utils.AverageFilter;
 
+import java.util.List;
+
+/**
+ * Moves the arm to a setpoint, extending so that the telescope finishes about when the pivot does. Anything the arm
+ * would hit on the way is avoided by going through the waypoints from {@link ArmPathPlanner} first, and only the last
+ * leg uses the timed extension.
+ */
 public class SetArmPosition extends CommandBase {
 
     private final double pivotAccel;
     Arm arm;
     ArmState setpoint;
 
-    private final AverageFilter extensionFilter = new AverageFilter(10);
-    private final AverageFilter rotationFilter = new AverageFilter(5);
     private final double extensionThreshold = 0.25;
     private final double rotationThreshold = 0.5;
     private boolean isExtending;
-    private long extensionStartTime;
-    private long extensionFinishTime;
+    // FPGA timestamps in seconds
+    private double extensionStartTime;
+    private double extensionFinishTime;
     private double extensionDelay;
     private boolean shouldZero;
+    private final ArmWaypointFollower follower;
+    private boolean isFinalMove;
 
 
     public SetArmPosition(Arm arm, ArmState setpoint) {
-        this(arm, setpoint, 0, true, 20000*(1+((ArmConstants.ARM_LENGTH_EXT-ArmConstants.ARM_BASE_LENGTH)-(setpoint.getExtension()-ArmConstants.ARM_BASE_LENGTH))/(ArmConstants.ARM_LENGTH_EXT-ArmConstants.ARM_BASE_LENGTH)));
+        this(arm, setpoint, 0, true, Arm.getPivotAccelForExtension(setpoint.getExtension()));
     }
 
 
@@ -33,6 +41,7 @@ public class SetArmPosition extends CommandBase {
         this.extensionDelay = extensionDelay;
         this.shouldZero = shouldZero;
         this.pivotAccel = pivotAccel;
+        this.follower = new ArmWaypointFollower(arm, 1, 0.5);
         addRequirements(arm);
     }
 
@@ -41,31 +50,41 @@ public class SetArmPosition extends CommandBase {
         if (shouldZero) {
             arm.resetToEncoder();
         }
+        List<ArmState> path = ArmPathPlanner.getInstance().getPath(arm.getArmState(), setpoint);
+        follower.start(path.subList(0, path.size() - 1), false);
+        isFinalMove = false;
+        isExtending = false;
+        if (follower.update()) startFinalMove();
+    }
+
+    private void startFinalMove() {
+        isFinalMove = true;
         arm.setPivotAccel(pivotAccel);
-        extensionStartTime = (long) (System.currentTimeMillis() + arm.timeToRotation(setpoint.getRotation2d()) - arm.timeToExtension(setpoint.getExtension()) + extensionDelay);
-        extensionFinishTime = (long) (System.currentTimeMillis() + Math.max(arm.timeToRotation(setpoint.getRotation2d()) , (arm.timeToExtension(setpoint.getExtension())) + extensionDelay));
+        extensionStartTime = Timer.getFPGATimestamp() + (arm.timeToRotation(setpoint.getRotation2d()) - arm.timeToExtension(setpoint.getExtension()) + extensionDelay) / 1000;
+        extensionFinishTime = Timer.getFPGATimestamp() + Math.max(arm.timeToRotation(setpoint.getRotation2d()) , (arm.timeToExtension(setpoint.getExtension())) + extensionDelay) / 1000;
         arm.setExtension(arm.getArmState().getExtension());
         arm.setRotation(setpoint.getRotation2d());
-        isExtending = false;
-        extensionFilter.clear();
-        rotationFilter.clear();
     }
 
     @Override
     public void execute() {
+        if (!isFinalMove) {
+            if (follower.update()) startFinalMove();
+            return;
+        }
         if(!isExtending){
-            if (System.currentTimeMillis() >= extensionStartTime){
+            if (Timer.getFPGATimestamp() >= extensionStartTime){
                 isExtending = true;
                 arm.setExtension(setpoint.getExtension());
             }
         }
-        extensionFilter.add(Math.abs(setpoint.getExtension() - arm.getArmState().getExtension()));
-        rotationFilter.add(Math.abs(setpoint.getRotation2d().getDegrees() - arm.getArmState().getRotation2d().getDegrees()));
     }
 
     @Override
     public boolean isFinished() {
-        return System.currentTimeMillis() > extensionFinishTime;
+        // Finish as soon as the arm is about to be in place, falling back to the estimated move time
+        return isFinalMove && ((isExtending && arm.isAtState(setpoint, rotationThreshold, extensionThreshold))
+                || Timer.getFPGATimestamp() > extensionFinishTime);
     }
 
     @Override
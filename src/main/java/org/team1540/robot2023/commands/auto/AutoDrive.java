@@ -1,57 +1,40 @@
 package org.team1540.robot2023.commands.auto;
 
 import com.pathplanner.lib.PathConstraints;
-import com.pathplanner.lib.PathPlanner;
-import com.pathplanner.lib.PathPlannerTrajectory;
 import com.pathplanner.lib.PathPoint;
-import com.pathplanner.lib.server.PathPlannerServer;
-import edu.wpi.first.apriltag.AprilTag;
-import edu.wpi.first.apriltag.AprilTagFieldLayout;
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.util.Units;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
-import edu.wpi.first.wpilibj2.command.ProxyCommand;
-import org.team1540.robot2023.Constants;
 import org.team1540.robot2023.commands.drivetrain.Drivetrain;
+import org.team1540.robot2023.utils.AprilTagPoses;
 import org.team1540.robot2023.utils.GridScoreData;
+import org.team1540.robot2023.utils.ScoringNodes;
 
-import java.util.LinkedList;
 import java.util.List;
-import java.util.NoSuchElementException;
 import java.util.function.Supplier;
 
-import static org.team1540.robot2023.Globals.aprilTagLayout;
 import static org.team1540.robot2023.Globals.field2d;
 
 public class AutoDrive {
     public static PIDController alignmentTranslationPID = new PIDController(5,0,0);
     public static PIDController alignmentRotationPID = new PIDController(2,0,0);
+    public static final PathConstraints alignmentConstraints = new PathConstraints(5, 3);
 
     public static void postPIDs() {
         SmartDashboard.putData("align/rotationPID", alignmentRotationPID);
         SmartDashboard.putData("align/translationPID", alignmentTranslationPID);
     }
     public static int getClosestTag(Drivetrain drivetrain) {
-        aprilTagLayout.setOrigin(DriverStation.getAlliance() == DriverStation.Alliance.Red ? AprilTagFieldLayout.OriginPosition.kRedAllianceWallRightSide : AprilTagFieldLayout.OriginPosition.kBlueAllianceWallRightSide);
-        Translation2d currentPose = drivetrain.getPose().getTranslation();
-        double mindist = Double.MAX_VALUE;
-        int closestTag = -1;
-        try {
-            for (AprilTag tag : aprilTagLayout.getTags()) {
-                Pose2d pose = aprilTagLayout.getTagPose(tag.ID).orElseThrow().toPose2d();
-                double distance = pose.getTranslation().getDistance(currentPose);
-                field2d.getObject("apriltag/" + tag.ID).setPose(pose);
-                if (distance < mindist || closestTag == -1) {
-                    mindist = distance;
-
-                    closestTag = tag.ID;
-                }
-            }
-        }  catch (NoSuchElementException e) {
+        DriverStation.Alliance alliance = DriverStation.getAlliance();
+        AprilTagPoses.publish(alliance);
+        int closestTag = AprilTagPoses.getClosestTag(drivetrain.getPose().getTranslation(), alliance);
+        if (closestTag == -1) {
             DriverStation.reportError("COULDN'T FIND APRIL TAG FOR SOME REASON THIS IS NOT SUPPOSED TO HAPPEN", false);
         }
         SmartDashboard.putNumber("drivetrain/tag", closestTag);
@@ -59,10 +42,33 @@ public class AutoDrive {
     }
 
     public static Pose2d getClosestTagPose(Drivetrain drivetrain) {
-        return aprilTagLayout.getTagPose(getClosestTag(drivetrain)).orElseThrow().toPose2d();
+        return AprilTagPoses.getPose(getClosestTag(drivetrain), DriverStation.getAlliance());
     }
     public static Translation2d getGridDrivePose(Drivetrain drivetrain, GridScoreData data) {
-        return getClosestTagPose(drivetrain).getTranslation().plus(new Translation2d(Constants.Auto.gridBackoffOffsetMeters+data.additionalBackoff, data.polePosition.offset));
+        return ScoringNodes.getClosestNode(drivetrain.getPose().getTranslation(), DriverStation.getAlliance(), data).pose.getTranslation();
+    }
+
+    /**
+     * @return the points after the start of a path that lines up with the grid at the end point
+     */
+    public static List<PathPoint> getGridAlignPoints(Translation2d endPoint) {
+        return List.of(
+                new PathPoint(endPoint.plus(new Translation2d(Units.inchesToMeters(5),0)), Rotation2d.fromDegrees(0), Rotation2d.fromDegrees(180)),
+//                new PathPoint(endPoint, Rotation2d.fromDegrees(0), Rotation2d.fromDegrees(180)).withPrevControlLength(Units.inchesToMeters(8))
+                new PathPoint(endPoint, Rotation2d.fromDegrees(0), Rotation2d.fromDegrees(180))
+        );
+    }
+
+    /**
+     * Drives to the grid at the end point
+     */
+    public static Command alignToGrid(Drivetrain drivetrain, Translation2d endPoint) {
+        return new GeneratedPathCommand(
+                drivetrain,
+                alignmentConstraints,
+                latency -> getStartPoint(getPredictedPose(drivetrain, latency)),
+                () -> getGridAlignPoints(endPoint)
+        ).withName("AutoGridAlign");
     }
 
     public static Command driveToPoints(Drivetrain drivetrain, PathPoint... points) {
@@ -74,48 +80,47 @@ public class AutoDrive {
     }
 
     public static Command driveToPoints(Drivetrain drivetrain, double maxVelocity, double maxAcceleration, Supplier<List<PathPoint>> points) {
-        return new ProxyCommand(() -> {
-            List<PathPoint> pointList = new LinkedList<>();
-            long time = System.currentTimeMillis();
-            pointList.add(new PathPoint(drivetrain.getPose().getTranslation(), Rotation2d.fromDegrees(0), drivetrain.getPose().getRotation()));
-            pointList.addAll(points.get());
-            PathPlannerTrajectory trajectory = PathPlanner.generatePath(
-                    new PathConstraints(5, 3),
-                    pointList
-            );
-            System.out.println("Time to generate path in ms: " + (System.currentTimeMillis() - time));
-            field2d.getObject("gridDrivePath").setTrajectory(trajectory);
-            field2d.getObject("endPose").setPose(trajectory.getEndState().poseMeters);
-            PathPlannerServer.sendActivePath(trajectory.getStates());
-            return drivetrain.getPathCommand(trajectory, alignmentTranslationPID, alignmentRotationPID);
-        }).withName("AutoDriveToPoints");
+        return new GeneratedPathCommand(
+                drivetrain,
+                alignmentConstraints,
+                latency -> getStartPoint(getPredictedPose(drivetrain, latency)),
+                points
+        ).withName("AutoDriveToPoints");
     }
 
 
     public static Command smoothDriveToPoints(Drivetrain drivetrain, double maxVelocity, double maxAcceleration, double time, Supplier<List<PathPoint>> points) {
-        return new ProxyCommand(() -> {
-            List<PathPoint> pointList = new LinkedList<>();
-            Translation2d position = drivetrain.getPose().getTranslation().plus(
-                    new Translation2d(drivetrain.getChassisSpeeds().vxMetersPerSecond * time,
-                            drivetrain.getChassisSpeeds().vyMetersPerSecond * time).rotateBy(drivetrain.getPose().getRotation())
-            );
+        return new GeneratedPathCommand(
+                drivetrain,
+                alignmentConstraints,
+                latency -> {
+                    Pose2d start = getPredictedPose(drivetrain, time + latency);
+                    return new PathPoint(
+                            start.getTranslation(),
+                            start.getTranslation().getAngle(),
+                            start.getRotation(),
+                            Math.hypot(drivetrain.getChassisSpeeds().vxMetersPerSecond, drivetrain.getChassisSpeeds().vyMetersPerSecond)
+                    );
+                },
+                points
+        ).withName("SmoothAutoDriveToPoints");
+    }
+
+    static PathPoint getStartPoint(Pose2d start) {
+        return new PathPoint(start.getTranslation(), Rotation2d.fromDegrees(0), start.getRotation());
+    }
 
-            pointList.add(new PathPoint(
-                    position,
-                    position.getAngle(),
-                    Rotation2d.fromRadians(drivetrain.getPose().getRotation().getRadians() + drivetrain.getChassisSpeeds().omegaRadiansPerSecond*time),
-                    Math.hypot(drivetrain.getChassisSpeeds().vxMetersPerSecond, drivetrain.getChassisSpeeds().vyMetersPerSecond)
-                    )
-            );
-            pointList.addAll(points.get());
-            PathPlannerTrajectory trajectory = PathPlanner.generatePath(
-                    new PathConstraints(5, 3),
-                    pointList
-            );
-            field2d.getObject("gridDrivePath").setTrajectory(trajectory);
-            field2d.getObject("endPose").setPose(trajectory.getEndState().poseMeters);
-            PathPlannerServer.sendActivePath(trajectory.getStates());
-            return drivetrain.getPathCommand(trajectory, alignmentTranslationPID, alignmentRotationPID);
-        }).withName("SmoothAutoDriveToPoints");
+    /**
+     * @return where the robot will be after the given number of seconds if it keeps going at its measured speeds
+     */
+    static Pose2d getPredictedPose(Drivetrain drivetrain, double time) {
+        Pose2d pose = drivetrain.getPose();
+        ChassisSpeeds speeds = drivetrain.getChassisSpeeds();
+        return new Pose2d(
+                pose.getTranslation().plus(
+                        new Translation2d(speeds.vxMetersPerSecond * time, speeds.vyMetersPerSecond * time).rotateBy(pose.getRotation())
+                ),
+                Rotation2d.fromRadians(pose.getRotation().getRadians() + speeds.omegaRadiansPerSecond * time)
+        );
     }
 }
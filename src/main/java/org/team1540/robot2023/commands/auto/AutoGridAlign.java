@@ -1,9 +1,6 @@
 package org.team1540.robot2023.commands.auto;
 
-import com.pathplanner.lib.PathPoint;
-import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
-import edu.wpi.first.math.util.Units;
 import edu.wpi.first.wpilibj2.command.CommandBase;
 import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.ProxyCommand;
@@ -25,12 +22,7 @@ public class AutoGridAlign extends SequentialCommandGroup {
         addCommands(
                 new ProxyCommand(() -> {
                     Translation2d endPoint = AutoDrive.getGridDrivePose(drivetrain, positions);
-                    return AutoDrive.driveToPoints(
-                            drivetrain,
-                            new PathPoint(endPoint.plus(new Translation2d(Units.inchesToMeters(5),0)), Rotation2d.fromDegrees(0), Rotation2d.fromDegrees(180)),
-//                                                new PathPoint(endPoint, Rotation2d.fromDegrees(0), Rotation2d.fromDegrees(180)).withPrevControlLength(Units.inchesToMeters(8))
-                            new PathPoint(endPoint, Rotation2d.fromDegrees(0), Rotation2d.fromDegrees(180))
-                    );
+                    return AutoDrive.alignToGrid(drivetrain, endPoint);
                 }
                 ).unless(()->!shouldAlign)
         );
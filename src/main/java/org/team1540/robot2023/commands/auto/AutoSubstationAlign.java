@@ -1,7 +1,6 @@
 package org.team1540.robot2023.commands.auto;
 
 import com.pathplanner.lib.PathPoint;
-import edu.wpi.first.apriltag.AprilTagFieldLayout;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.math.util.Units;
@@ -16,10 +15,9 @@ import org.team1540.robot2023.commands.drivetrain.Drivetrain;
 import org.team1540.robot2023.commands.grabber.GrabberAggressiveCommand;
 import org.team1540.robot2023.commands.grabber.GrabberIntakeCommand;
 import org.team1540.robot2023.commands.grabber.WheeledGrabber;
+import org.team1540.robot2023.utils.AprilTagPoses;
 import org.team1540.robot2023.utils.ArmState;
 
-import static org.team1540.robot2023.Globals.aprilTagLayout;
-
 public class AutoSubstationAlign extends SequentialCommandGroup {
     private AutoSubstationAlign(Drivetrain drivetrain, Arm arm, WheeledGrabber intake, CommandXboxController controller, double offset) {
         boolean didSucceed = drivetrain.updateWithScoringApriltags();
@@ -27,9 +25,8 @@ public class AutoSubstationAlign extends SequentialCommandGroup {
             addCommands(new PrintCommand("NOT SUBSTATION ALIGNING - NO TAG"));
             return;
         }
-        aprilTagLayout.setOrigin(DriverStation.getAlliance() == DriverStation.Alliance.Red ? AprilTagFieldLayout.OriginPosition.kRedAllianceWallRightSide : AprilTagFieldLayout.OriginPosition.kBlueAllianceWallRightSide);
-        int substationTagID = DriverStation.getAlliance() == DriverStation.Alliance.Red ? 5 : 4;
-        Translation2d endPoint = aprilTagLayout.getTagPose(substationTagID).orElseThrow().toPose2d().getTranslation().plus(new Translation2d(-Constants.Auto.hpOffsetX, offset));
+        DriverStation.Alliance alliance = DriverStation.getAlliance();
+        Translation2d endPoint = AprilTagPoses.getPose(AprilTagPoses.getSubstationTag(alliance), alliance).getTranslation().plus(new Translation2d(-Constants.Auto.hpOffsetX, offset));
 
         addCommands(
                 Commands.race(
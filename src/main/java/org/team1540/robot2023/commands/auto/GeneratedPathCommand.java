@@ -0,0 +1,109 @@
+package org.team1540.robot2023.commands.auto;
+
+import com.pathplanner.lib.PathConstraints;
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPoint;
+import com.pathplanner.lib.server.PathPlannerServer;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import org.team1540.lib.util.TelemetryBus;
+import org.team1540.lib.util.TelemetryBus.Priority;
+import org.team1540.robot2023.commands.drivetrain.Drivetrain;
+import org.team1540.robot2023.utils.AsyncPathGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.DoubleFunction;
+import java.util.function.Supplier;
+
+import static org.team1540.robot2023.Globals.field2d;
+
+/**
+ * Generates a path in the background and then follows it. Until the path is ready the robot keeps going at the field
+ * relative speeds it was measured at when this started, so the path can start from where the robot is predicted to be
+ * once it's ready.
+ */
+public class GeneratedPathCommand extends CommandBase {
+    private final Drivetrain drivetrain;
+    private final PathConstraints constraints;
+    private final DoubleFunction<PathPoint> startPoint;
+    private final Supplier<List<PathPoint>> points;
+
+    private CompletableFuture<PathPlannerTrajectory> trajectoryFuture;
+    private ChassisSpeeds heldSpeeds;
+    private Command pathCommand;
+    private boolean failed;
+
+    /**
+     * @param startPoint gets the first point of the path given how many seconds from now the path will start
+     */
+    public GeneratedPathCommand(Drivetrain drivetrain, PathConstraints constraints, DoubleFunction<PathPoint> startPoint, Supplier<List<PathPoint>> points) {
+        this.drivetrain = drivetrain;
+        this.constraints = constraints;
+        this.startPoint = startPoint;
+        this.points = points;
+        addRequirements(drivetrain);
+    }
+
+    @Override
+    public void initialize() {
+        pathCommand = null;
+        failed = false;
+        // Whatever was driving before has already stopped the drivetrain, so pick the speeds back up from the wheels
+        drivetrain.resetAccelerationLimit();
+        ChassisSpeeds measured = drivetrain.getChassisSpeeds();
+        Translation2d fieldVelocity = new Translation2d(measured.vxMetersPerSecond, measured.vyMetersPerSecond)
+                .rotateBy(drivetrain.getPose().getRotation());
+        heldSpeeds = new ChassisSpeeds(fieldVelocity.getX(), fieldVelocity.getY(), measured.omegaRadiansPerSecond);
+        List<PathPoint> pointList = new ArrayList<>();
+        pointList.add(startPoint.apply(AsyncPathGenerator.getInstance().getExpectedLatency()));
+        pointList.addAll(points.get());
+        trajectoryFuture = AsyncPathGenerator.getInstance().generate(constraints, pointList);
+    }
+
+    @Override
+    public void execute() {
+        if (pathCommand == null) {
+            if (!trajectoryFuture.isDone()) {
+                drivetrain.setFieldRelativeSpeeds(heldSpeeds);
+                return;
+            }
+            PathPlannerTrajectory trajectory;
+            try {
+                trajectory = trajectoryFuture.join();
+            } catch (CompletionException e) {
+                DriverStation.reportError("Couldn't generate path: " + e.getCause(), false);
+                failed = true;
+                return;
+            }
+            if (TelemetryBus.getInstance().isPublishing(Priority.LOW)) {
+                field2d.getObject("gridDrivePath").setTrajectory(trajectory);
+                field2d.getObject("endPose").setPose(trajectory.getEndState().poseMeters);
+            }
+            PathPlannerServer.sendActivePath(trajectory.getStates());
+            pathCommand = drivetrain.getPathCommand(trajectory, AutoDrive.alignmentTranslationPID, AutoDrive.alignmentRotationPID);
+            pathCommand.initialize();
+        }
+        pathCommand.execute();
+    }
+
+    @Override
+    public boolean isFinished() {
+        return failed || (pathCommand != null && pathCommand.isFinished());
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        if (pathCommand != null) {
+            pathCommand.end(interrupted);
+        } else {
+            trajectoryFuture.cancel(false);
+        }
+        AsyncPathGenerator.getInstance().publishLatency();
+    }
+}
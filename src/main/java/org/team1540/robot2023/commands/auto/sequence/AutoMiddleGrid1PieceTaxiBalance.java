@@ -12,13 +12,16 @@ import org.team1540.robot2023.commands.drivetrain.AutoBalanceCommand;
 import org.team1540.robot2023.commands.drivetrain.Drivetrain;
 import org.team1540.robot2023.commands.grabber.WheeledGrabber;
 import org.team1540.robot2023.utils.AutoCommand;
+import org.team1540.robot2023.utils.AutoPath;
 import org.team1540.robot2023.utils.PolePosition;
 
 import java.util.List;
 
 public class AutoMiddleGrid1PieceTaxiBalance extends AutoCommand {
+    public static final AutoPath PATH = AutoPath.group("MiddleGrid1PieceTaxiBalance", false, new PathConstraints(1, 1));
+
     public AutoMiddleGrid1PieceTaxiBalance(Drivetrain drivetrain, Arm arm, WheeledGrabber intake) {
-        List<Command> commands = getPathPlannerDriveCommandGroup(drivetrain, "MiddleGrid1PieceTaxiBalance", new PathConstraints(1, 1), false);
+        List<Command> commands = getPathPlannerDriveCommandGroup(drivetrain, PATH);
         addCommands(
 //                new AutoGridScore(drivetrain, arm, Constants.Auto.highCube.withPolePosition(PolePosition.CENTER), intake),
                 new AutoCube(drivetrain, arm, Constants.Auto.highCube.withPolePosition(PolePosition.CENTER), intake, null, false),
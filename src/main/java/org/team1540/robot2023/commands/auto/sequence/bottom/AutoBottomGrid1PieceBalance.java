@@ -11,16 +11,19 @@ import org.team1540.robot2023.commands.drivetrain.AutoBalanceCommand;
 import org.team1540.robot2023.commands.drivetrain.Drivetrain;
 import org.team1540.robot2023.commands.grabber.WheeledGrabber;
 import org.team1540.robot2023.utils.AutoCommand;
+import org.team1540.robot2023.utils.AutoPath;
 import org.team1540.robot2023.utils.PolePosition;
 
 public class AutoBottomGrid1PieceBalance extends AutoCommand {
+    public static final AutoPath PATH = AutoPath.path("BottomGrid1PieceBalance", new PathConstraints(4, 2), false);
+
     public AutoBottomGrid1PieceBalance(Drivetrain drivetrain, Arm arm, WheeledGrabber intake) {
         addCommands(
 //                new AutoGridScore(drivetrain, arm, Constants.Auto.highCube.withPolePosition(PolePosition.CENTER), intake),
                 new AutoCube(drivetrain, arm, Constants.Auto.highCube.withPolePosition(PolePosition.CENTER), intake, null, false),
                 Commands.parallel(
                         new RetractAndPivotCommand(arm, Rotation2d.fromDegrees(-45)),
-                        getPathPlannerDriveCommand(drivetrain, "BottomGrid1PieceBalance", new PathConstraints(4, 2), false)
+                        getPathPlannerDriveCommand(drivetrain, PATH)
                 ),
                 new AutoBalanceCommand(drivetrain)
         );
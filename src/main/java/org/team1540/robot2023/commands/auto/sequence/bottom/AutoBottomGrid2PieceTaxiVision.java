@@ -17,17 +17,20 @@ import org.team1540.robot2023.commands.grabber.WheeledGrabber;
 import org.team1540.robot2023.commands.vision.DriveToGamePiece;
 import org.team1540.robot2023.commands.vision.TurnToGamePiece;
 import org.team1540.robot2023.utils.AutoCommand;
+import org.team1540.robot2023.utils.AutoPath;
 import org.team1540.robot2023.utils.Limelight;
 import org.team1540.robot2023.utils.PolePosition;
 
 import java.util.List;
 
 public class AutoBottomGrid2PieceTaxiVision extends AutoCommand {
+    public static final AutoPath PATH = AutoPath.group("BottomGrid2PieceTaxiVision", false,
+            new PathConstraints(2,1),
+            new PathConstraints(4,2)
+    );
+
     public AutoBottomGrid2PieceTaxiVision(Drivetrain drivetrain, Arm arm, WheeledGrabber intake, Limelight limelight) {
-        List<Command> pathCommands = getPathPlannerDriveCommandGroup(drivetrain,"BottomGrid2PieceTaxiVision", new PathConstraints[]{
-                new PathConstraints(2,1),
-                new PathConstraints(4,2)
-        }, false);
+        List<Command> pathCommands = getPathPlannerDriveCommandGroup(drivetrain, PATH);
 
         addCommands(
                 new InstantCommand(() -> limelight.setPipeline(Limelight.Pipeline.GAME_PIECE)),
@@ -14,16 +14,19 @@ import org.team1540.robot2023.commands.grabber.WheeledGrabber;
 import org.team1540.robot2023.commands.vision.DriveToGamePiece;
 import org.team1540.robot2023.commands.vision.TurnToGamePiece;
 import org.team1540.robot2023.utils.AutoCommand;
+import org.team1540.robot2023.utils.AutoPath;
 import org.team1540.robot2023.utils.Limelight;
 
 import java.util.List;
 
 public class AutoBottomGrid2_5PieceTaxiVision extends AutoCommand {
+    public static final AutoPath PATH = AutoPath.group("BottomGrid2_5PieceTaxiVision", false,
+            new PathConstraints(2,1),
+            new PathConstraints(4,2)
+    );
+
     public AutoBottomGrid2_5PieceTaxiVision(Drivetrain drivetrain, Arm arm, WheeledGrabber intake, Limelight limelight, Limelight frontLimelight) {
-        List<Command> pathCommands = getPathPlannerDriveCommandGroup(drivetrain,"BottomGrid2_5PieceTaxiVision", new PathConstraints[]{
-                new PathConstraints(2,1),
-                new PathConstraints(4,2)
-        }, false);
+        List<Command> pathCommands = getPathPlannerDriveCommandGroup(drivetrain, PATH);
         setName("BottomGrid2.5PieceTaxiVision");
         addCommands(
                 new InstantCommand(()-> limelight.setPipeline(Limelight.Pipeline.GAME_PIECE)),
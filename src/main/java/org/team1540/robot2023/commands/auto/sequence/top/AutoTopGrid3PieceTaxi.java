@@ -18,13 +18,16 @@ import org.team1540.robot2023.commands.grabber.GrabberOuttakeCommand;
 import org.team1540.robot2023.commands.grabber.WheeledGrabber;
 import org.team1540.robot2023.utils.ArmState;
 import org.team1540.robot2023.utils.AutoCommand;
+import org.team1540.robot2023.utils.AutoPath;
 import org.team1540.robot2023.utils.PolePosition;
 
 import java.util.List;
 
 public class AutoTopGrid3PieceTaxi extends AutoCommand {
+    public static final AutoPath PATH = AutoPath.group("TopGrid3PieceTaxi", false, new PathConstraints(5, 3));
+
     public AutoTopGrid3PieceTaxi(Drivetrain drivetrain, Arm arm, WheeledGrabber intake) {
-        List<Command> pathCommands = getPathPlannerDriveCommandGroup(drivetrain, "TopGrid3PieceTaxi", new PathConstraints(5, 3), false);
+        List<Command> pathCommands = getPathPlannerDriveCommandGroup(drivetrain, PATH);
         addCommands(
                 new AutoCube(drivetrain, arm, Constants.Auto.highCube.withPolePosition(PolePosition.CENTER), intake, null, false),
                 Commands.parallel(
@@ -2,6 +2,7 @@ package org.team1540.robot2023.commands.auto.sequence.top;
 
 import com.pathplanner.lib.PathConstraints;
 import edu.wpi.first.wpilibj2.command.*;
+import org.team1540.lib.util.RateLimitedLog;
 import org.team1540.robot2023.Constants;
 import org.team1540.robot2023.commands.arm.Arm;
 import org.team1540.robot2023.commands.arm.PivotCommand;
@@ -18,6 +19,8 @@ import org.team1540.robot2023.utils.AutoCommand;
 import java.util.List;
 
 public class AutoTopGrid3PieceTaxiCone extends AutoCommand {
+    private static final RateLimitedLog.Site log = RateLimitedLog.site("AutoTopGrid3PieceTaxiCone", 0);
+
     public AutoTopGrid3PieceTaxiCone(Drivetrain drivetrain, Arm arm, WheeledGrabber intake) {
         long startTime = System.currentTimeMillis();
         List<Command> pathCommands = getPathPlannerDriveCommandGroup(drivetrain, "TopGrid3PieceTaxiCone", new PathConstraints(5, 3.3), true);
@@ -78,7 +81,7 @@ public class AutoTopGrid3PieceTaxiCone extends AutoCommand {
                 ),
                 new InstantCommand(drivetrain::updateWithScoringApriltags),
                 new GrabberOuttakeCommand(intake,0.5),
-                new InstantCommand(() -> System.out.println("Time taken in ms: " + (System.currentTimeMillis() - startTime)))
+                new InstantCommand(() -> log.log("Time taken in ms: {}", System.currentTimeMillis() - startTime))
 //                new AutoHybrid(drivetrain, arm, Constants.Auto.hybridNode.withPolePosition(PolePosition.CENTER), intake, null, true)
 
         );
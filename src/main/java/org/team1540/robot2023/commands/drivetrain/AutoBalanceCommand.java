@@ -22,6 +22,11 @@ public class AutoBalanceCommand extends CommandBase {
         this.drivetrain = drivetrain;
     }
 
+    @Override
+    public void initialize() {
+        drivetrain.resetAccelerationLimit();
+    }
+
     @Override
     public void execute() {
         addRequirements(drivetrain);
@@ -3,7 +3,7 @@ package org.team1540.robot2023.commands.drivetrain;
 import com.ctre.phoenix.motorcontrol.NeutralMode;
 import com.kauailabs.navx.frc.AHRS;
 import com.pathplanner.lib.PathPlannerTrajectory;
-import com.pathplanner.lib.commands.PPSwerveControllerCommand;
+import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.controller.PIDController;
 import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
 import edu.wpi.first.math.geometry.Pose2d;
@@ -14,26 +14,41 @@ import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.wpilibj.DataLogManager;
 import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.*;
+import org.team1540.lib.util.AllocationBudget;
+import org.team1540.lib.util.InputLog;
+import org.team1540.lib.util.LoopProfiler;
+import org.team1540.lib.util.TelemetryBus;
+import org.team1540.lib.util.TelemetryBus.DoubleSignal;
+import org.team1540.lib.util.TelemetryBus.Priority;
 import org.team1540.lib.util.TrajectoryTransformer;
 import org.team1540.robot2023.Constants;
 import org.team1540.robot2023.LimelightManager;
+import org.team1540.robot2023.utils.ArmState;
+import org.team1540.robot2023.utils.TippingModel;
 import org.team1540.robot2023.utils.swerve.SwerveModule;
 
+import java.util.function.Supplier;
+
 import static org.team1540.robot2023.Constants.Swerve;
 import static org.team1540.robot2023.Globals.field2d;
 
 public class Drivetrain extends SubsystemBase {
+    private static final int PERIODIC_SECTION = LoopProfiler.getInstance().addSection("Drivetrain.periodic");
+    private static final int PERIODIC_ALLOCATIONS = AllocationBudget.getInstance().add("Drivetrain.periodic", Constants.AllocationBudgets.DRIVETRAIN_PERIODIC);
 
+    private final DrivetrainIO.Inputs inputs = new DrivetrainIO.Inputs();
     private SwerveModuleState[] states = new SwerveModuleState[]{new SwerveModuleState(), new SwerveModuleState(), new SwerveModuleState(), new SwerveModuleState()};
     private final SwerveModule[] modules = new SwerveModule[]{
-            new SwerveModule(0, Swerve.Mod0.constants),
-            new SwerveModule(1, Swerve.Mod1.constants),
-            new SwerveModule(2, Swerve.Mod2.constants),
-            new SwerveModule(3, Swerve.Mod3.constants)
+            new SwerveModule(0, Swerve.Mod0.constants, inputs),
+            new SwerveModule(1, Swerve.Mod1.constants, inputs),
+            new SwerveModule(2, Swerve.Mod2.constants, inputs),
+            new SwerveModule(3, Swerve.Mod3.constants, inputs)
     };
 
+    // Only used to zero the gyro, readings come from the inputs
     private final AHRS gyro;
     private double fieldOrientationOffset = 0;
     // These PID controllers don't actually do anything, but their PID values are copied for PathPlanner commands
@@ -43,23 +58,29 @@ public class Drivetrain extends SubsystemBase {
     private boolean isParkMode = false;
     private boolean isRunningPath = false;
     private boolean isRunningAuto = false;
+    // Used to limit acceleration so the robot doesn't tip over with the arm out
+    private Supplier<ArmState> armStateSupplier = null;
+    // The last translation the limit let through, field relative so that turning doesn't count as accelerating
+    private double lastFieldVx = 0;
+    private double lastFieldVy = 0;
+    private boolean isAccelerationLimited = false;
 
     // Odometry
     private final SwerveDrivePoseEstimator poseEstimator;
 
+    private final DoubleSignal yawSignal = TelemetryBus.getInstance().addDouble("gyro/yaw", Priority.NORMAL, 50);
+    private final DoubleSignal pitchSignal = TelemetryBus.getInstance().addDouble("gyro/pitch", Priority.NORMAL, 50);
+    private final DoubleSignal rollSignal = TelemetryBus.getInstance().addDouble("gyro/roll", Priority.NORMAL, 50);
+    private final DoubleSignal forwardAccelLimitSignal = TelemetryBus.getInstance().addDouble("drivetrain/accelLimit/forward", Priority.LOW, 10);
+    private final DoubleSignal backwardAccelLimitSignal = TelemetryBus.getInstance().addDouble("drivetrain/accelLimit/backward", Priority.LOW, 10);
+    private final DoubleSignal sidewaysAccelLimitSignal = TelemetryBus.getInstance().addDouble("drivetrain/accelLimit/sideways", Priority.LOW, 10);
+
 
     public Drivetrain(AHRS gyro) {
         this.gyro = gyro;
+        DrivetrainIO io = new DrivetrainIOHardware(gyro, modules);
+        InputLog.getInstance().register("Drivetrain", inputs, io::updateInputs);
         poseEstimator = new SwerveDrivePoseEstimator(Swerve.swerveKinematics, getYaw(), getModulePositions(), new Pose2d());
-        PPSwerveControllerCommand.setLoggingCallbacks(
-                (trajectory) -> field2d.getObject("activetrajectory").setTrajectory(trajectory),
-                (pose) -> field2d.getObject("targetpose").setPose(pose),
-                null,
-                (translation, rotation) -> {
-                    SmartDashboard.putNumber("drivetrain/pathplanner/xErr", translation.getX());
-                    SmartDashboard.putNumber("drivetrain/pathplanner/yErr", translation.getY());
-                    SmartDashboard.putNumber("drivetrain/pathplanner/rotErr", rotation.getDegrees());
-                });
         SmartDashboard.putData("drivetrain/translationPID", dummyTranslationPID);
         SmartDashboard.putData("drivetrain/rotationPID", dummyRotationPID);
         SmartDashboard.putNumberArray("drivetrain/swerveModuleStates/desired", new double[]{
@@ -88,9 +109,11 @@ public class Drivetrain extends SubsystemBase {
 
     @Override
     public void periodic() {
-        SmartDashboard.putNumber("gyro/yaw", gyro.getYaw());
-        SmartDashboard.putNumber("gyro/pitch", gyro.getPitch());
-        SmartDashboard.putNumber("gyro/roll", gyro.getRoll());
+        long start = LoopProfiler.getInstance().start();
+        long allocationStart = AllocationBudget.getInstance().start();
+        yawSignal.set(inputs.gyroYaw);
+        pitchSignal.set(inputs.gyroPitch);
+        rollSignal.set(inputs.gyroRoll);
         SwerveDriveKinematics.desaturateWheelSpeeds(states, Swerve.maxVelocity);
         modules[0].setDesiredState(states[0], true, isParkMode);
         modules[1].setDesiredState(states[1], true, isParkMode);
@@ -100,6 +123,14 @@ public class Drivetrain extends SubsystemBase {
 //        if (!isRunningPath && !isRunningAuto) {
 //            LimelightManager.getInstance().applyEstimates(poseEstimator);
 //        }
+        AllocationBudget.getInstance().stop(PERIODIC_ALLOCATIONS, allocationStart);
+        LoopProfiler.getInstance().stop(PERIODIC_SECTION, start);
+    }
+
+    /**
+     * Draws the robot on the field. This is left out of periodic so it can be skipped when the loop runs long.
+     */
+    public void updateFieldPose() {
         field2d.setRobotPose(poseEstimator.getEstimatedPosition());
     }
 
@@ -108,8 +139,7 @@ public class Drivetrain extends SubsystemBase {
     }
 
     public void resetToPath(PathPlannerTrajectory rawTrajectory) {
-        PathPlannerTrajectory transformedTrajectory = PathPlannerTrajectory.transformTrajectoryForAlliance(rawTrajectory, DriverStation.getAlliance());
-        resetOdometry(transformedTrajectory.getInitialHolonomicPose());
+        resetToPose(rawTrajectory.getInitialHolonomicPose());
     }
 
     public void resetToPose(Pose2d rawState) {
@@ -153,14 +183,18 @@ public class Drivetrain extends SubsystemBase {
         double xSpeed = xPercent * Swerve.maxVelocity;
         double ySpeed = yPercent * Swerve.maxVelocity;
         double rot = Math.toRadians(rotPercent*360);
+        // Negating the angle is what AHRS.getRotation2d() does
         ChassisSpeeds chassisSpeeds = fieldRelative
-                ? ChassisSpeeds.fromFieldRelativeSpeeds(xSpeed, ySpeed, rot, gyro.getRotation2d().minus(Rotation2d.fromDegrees(fieldOrientationOffset)))
+                ? ChassisSpeeds.fromFieldRelativeSpeeds(xSpeed, ySpeed, rot, Rotation2d.fromDegrees(-inputs.gyroAngle).minus(Rotation2d.fromDegrees(fieldOrientationOffset)))
                 : new ChassisSpeeds(xSpeed, ySpeed, rot);
         double deadzone = 0.02;
         double rotDeadzone = 0.1;
         if (Math.abs(xPercent) > 0 || Math.abs(yPercent) > deadzone || Math.abs(rot) > rotDeadzone) {
             isParkMode = false;
             setChassisSpeeds(chassisSpeeds);
+        } else if (Math.hypot(lastFieldVx, lastFieldVy) > deadzone * Swerve.maxVelocity) {
+            // Still moving, so slow down at the acceleration limit instead of slamming into park
+            setChassisSpeeds(new ChassisSpeeds(0, 0, rot));
         } else {
             stopLocked();
         }
@@ -171,6 +205,7 @@ public class Drivetrain extends SubsystemBase {
      */
     public void stopLocked() {
         isParkMode = true;
+        clearAccelerationLimit();
         setModuleStates(new SwerveModuleState[]{
                 new SwerveModuleState(0, Rotation2d.fromDegrees(45)), //Front Left
                 new SwerveModuleState(0, Rotation2d.fromDegrees(-45)), //Front Right
@@ -179,31 +214,130 @@ public class Drivetrain extends SubsystemBase {
         });
     }
 
+    /**
+     * Stops the wheels straight away instead of slowing down at the acceleration limit. This is for commands ending and
+     * the robot disabling, where nothing else is going to keep asking for speeds until the robot has stopped.
+     */
+    public void stop() {
+        isParkMode = false;
+        clearAccelerationLimit();
+        states = Swerve.swerveKinematics.toSwerveModuleStates(new ChassisSpeeds());
+    }
+
+    /**
+     * Starts the acceleration limit from how fast the wheels are actually going, so a command taking over doesn't
+     * pick up from whatever speed was last asked for
+     */
+    public void resetAccelerationLimit() {
+        ChassisSpeeds measured = getChassisSpeeds();
+        Rotation2d heading = getYaw();
+        lastFieldVx = measured.vxMetersPerSecond * heading.getCos() - measured.vyMetersPerSecond * heading.getSin();
+        lastFieldVy = measured.vxMetersPerSecond * heading.getSin() + measured.vyMetersPerSecond * heading.getCos();
+        isAccelerationLimited = false;
+    }
+
+    private void clearAccelerationLimit() {
+        lastFieldVx = 0;
+        lastFieldVy = 0;
+        isAccelerationLimited = false;
+    }
+
+    /**
+     * @return whether the last speeds asked for were cut back by the acceleration limit
+     */
+    public boolean isAccelerationLimited() {
+        return isAccelerationLimited;
+    }
+
     void setModuleStates(SwerveModuleState[] newStates) {
         this.states = newStates;
     }
 
-    private void setChassisSpeeds(ChassisSpeeds speeds) {
-        states = Swerve.swerveKinematics.toSwerveModuleStates(speeds);
+    void setChassisSpeeds(ChassisSpeeds speeds) {
+        states = Swerve.swerveKinematics.toSwerveModuleStates(limitAcceleration(speeds));
+    }
+
+    /**
+     * Drives at the given speeds relative to the field, through the acceleration limit
+     */
+    public void setFieldRelativeSpeeds(ChassisSpeeds speeds) {
+        setChassisSpeeds(ChassisSpeeds.fromFieldRelativeSpeeds(speeds, getPose().getRotation()));
+    }
+
+    public void setArmStateSupplier(Supplier<ArmState> armStateSupplier) {
+        this.armStateSupplier = armStateSupplier;
+    }
+
+    /**
+     * Limits how much the robot's velocity can change each loop, using limits worked out from where the arm is right
+     * now. The change is taken in field coordinates, since spinning while driving straight doesn't accelerate the
+     * robot, and only turned to face the robot to pick which of the forward, backward and sideways limits applies.
+     * Everything that drives goes through this, including path following with its feedback.
+     */
+    private ChassisSpeeds limitAcceleration(ChassisSpeeds speeds) {
+        // Any fixed frame works here, so this doesn't need the driver's field orientation offset
+        Rotation2d heading = getYaw();
+        double cos = heading.getCos();
+        double sin = heading.getSin();
+        double fieldVx = speeds.vxMetersPerSecond * cos - speeds.vyMetersPerSecond * sin;
+        double fieldVy = speeds.vxMetersPerSecond * sin + speeds.vyMetersPerSecond * cos;
+        if (armStateSupplier == null) {
+            lastFieldVx = fieldVx;
+            lastFieldVy = fieldVy;
+            isAccelerationLimited = false;
+            return speeds;
+        }
+        TippingModel.AccelerationLimits limits = TippingModel.getAccelerationLimits(armStateSupplier.get());
+        forwardAccelLimitSignal.set(limits.forward);
+        backwardAccelLimitSignal.set(limits.backward);
+        sidewaysAccelLimitSignal.set(limits.sideways);
+
+        double dt = TimedRobot.kDefaultPeriod;
+        double deltaX = fieldVx - lastFieldVx;
+        double deltaY = fieldVy - lastFieldVy;
+        // The change in velocity from the robot's point of view
+        double forward = deltaX * cos + deltaY * sin;
+        double sideways = -deltaX * sin + deltaY * cos;
+        double limitedForward = MathUtil.clamp(forward, -limits.backward * dt, limits.forward * dt);
+        double limitedSideways = MathUtil.clamp(sideways, -limits.sideways * dt, limits.sideways * dt);
+        isAccelerationLimited = limitedForward != forward || limitedSideways != sideways;
+
+        lastFieldVx += limitedForward * cos - limitedSideways * sin;
+        lastFieldVy += limitedForward * sin + limitedSideways * cos;
+        return new ChassisSpeeds(
+                lastFieldVx * cos + lastFieldVy * sin,
+                -lastFieldVx * sin + lastFieldVy * cos,
+                speeds.omegaRadiansPerSecond
+        );
     }
 
 
-    public Command getAutoPathCommand(PathPlannerTrajectory trajectory) {
-        return this.getPathCommand(trajectory, dummyTranslationPID, dummyRotationPID);
+    /**
+     * @param alliance the alliance to follow the path for, which mirrors it on red since paths are drawn for blue
+     */
+    public Command getAutoPathCommand(PathPlannerTrajectory trajectory, DriverStation.Alliance alliance) {
+        return this.getPathCommand(trajectory, alliance, dummyTranslationPID, dummyRotationPID);
     }
 
+    /**
+     * Follows a path that's already in field coordinates, like the ones generated on the fly
+     */
     public Command getPathCommand(PathPlannerTrajectory trajectory, PIDController dummyTranslation, PIDController dummmyRotation) {
+        return getPathCommand(trajectory, DriverStation.Alliance.Blue, dummyTranslation, dummmyRotation);
+    }
+
+    private Command getPathCommand(PathPlannerTrajectory trajectory, DriverStation.Alliance alliance, PIDController dummyTranslation, PIDController dummmyRotation) {
         return Commands.sequence(
                 new InstantCommand(() -> isRunningPath = true).withName("StartBlockingTags"),
-                new PPSwerveControllerCommand(
+                new TrajectoryFollowCommand(
+                this,
                 trajectory,
-                this::getPose, // Pose supplier
+                alliance,
                 // TODO: Tune
                 new PIDController(dummyTranslation.getP(), dummyTranslation.getI(), dummyTranslation.getD()),
                 new PIDController(dummyTranslation.getP(), dummyTranslation.getI(), dummyTranslation.getD()),
                 new PIDController(dummmyRotation.getP(), dummmyRotation.getI(), dummmyRotation.getD()),
-                this::setChassisSpeeds, // Module states consumer
-                this // Requires this drive subsystem
+                Swerve.pathLookahead
             ),
             new InstantCommand(() -> isRunningPath = false).withName("StopBlockingTags")
         );
@@ -212,7 +346,7 @@ public class Drivetrain extends SubsystemBase {
     protected Command getResettingPathCommand(PathPlannerTrajectory trajectory) {
         return new SequentialCommandGroup(
                 new InstantCommand(() -> resetOdometry(trajectory.getInitialHolonomicPose())).withName("ResetOdometry"),
-                getAutoPathCommand(trajectory)
+                getAutoPathCommand(trajectory, DriverStation.Alliance.Blue)
         );
     }
 
@@ -238,21 +372,21 @@ public class Drivetrain extends SubsystemBase {
     }
 
     public Rotation2d getYaw() {
-        if (gyro.isMagnetometerCalibrated()) {
+        if (inputs.gyroMagnetometerCalibrated) {
             // We will only get valid fused headings if the magnetometer is calibrated
-            return Rotation2d.fromDegrees(gyro.getFusedHeading());
+            return Rotation2d.fromDegrees(inputs.gyroFusedHeading);
         }
         // We have to invert the angle of the NavX so that rotating the robot counter-clockwise makes the angle increase.
-        return Rotation2d.fromDegrees(360.0-gyro.getYaw());
+        return Rotation2d.fromDegrees(360.0-inputs.gyroYaw);
     }
     
     public double getRawGyroAngle() {
-        return gyro.getAngle();
+        return inputs.gyroAngle;
     }
 
 
     public Rotation2d getPitch() {
-        return Rotation2d.fromDegrees(gyro.getPitch());
+        return Rotation2d.fromDegrees(inputs.gyroPitch);
     }
 
     public void setNeutralMode(NeutralMode neutralMode) {
@@ -261,7 +395,7 @@ public class Drivetrain extends SubsystemBase {
         }
     }
     public Rotation2d getRoll() {
-        return Rotation2d.fromDegrees(gyro.getRoll());
+        return Rotation2d.fromDegrees(inputs.gyroRoll);
     }
 
     public Pose2d getPose() {
@@ -272,8 +406,12 @@ public class Drivetrain extends SubsystemBase {
         poseEstimator.resetPosition(getYaw(), getModulePositions(), pose);
     }
 
+    /**
+     * @return how fast the robot is actually going, robot relative, from the measured module speeds
+     */
     public ChassisSpeeds getChassisSpeeds(){
-        return Swerve.swerveKinematics.toChassisSpeeds(states);
+        return Swerve.swerveKinematics.toChassisSpeeds(
+                modules[0].getState(), modules[1].getState(), modules[2].getState(), modules[3].getState());
     }
 
 
@@ -0,0 +1,54 @@
+package org.team1540.robot2023.commands.drivetrain;
+
+import org.team1540.lib.util.InputLog;
+
+/**
+ * Everything the drivetrain reads from the gyro and the swerve modules. Module values are in the order the modules
+ * are in {@link Drivetrain}.
+ */
+public interface DrivetrainIO {
+    class Inputs implements InputLog.LoggableInputs {
+        // NavX values, in its own degrees
+        public double gyroYaw = 0;
+        public double gyroPitch = 0;
+        public double gyroRoll = 0;
+        public double gyroAngle = 0;
+        public double gyroFusedHeading = 0;
+        public boolean gyroMagnetometerCalibrated = false;
+
+        public final double[] drivePositionMeters = new double[4];
+        public final double[] driveVelocityMetersPerSecond = new double[4];
+        public final double[] angleDegrees = new double[4];
+        public final double[] canCoderDegrees = new double[4];
+
+        @Override
+        public void toLog(InputLog.Table table) {
+            table.put("gyroYaw", gyroYaw);
+            table.put("gyroPitch", gyroPitch);
+            table.put("gyroRoll", gyroRoll);
+            table.put("gyroAngle", gyroAngle);
+            table.put("gyroFusedHeading", gyroFusedHeading);
+            table.put("gyroMagnetometerCalibrated", gyroMagnetometerCalibrated);
+            table.put("drivePositionMeters", drivePositionMeters);
+            table.put("driveVelocityMetersPerSecond", driveVelocityMetersPerSecond);
+            table.put("angleDegrees", angleDegrees);
+            table.put("canCoderDegrees", canCoderDegrees);
+        }
+
+        @Override
+        public void fromLog(InputLog.Table table) {
+            gyroYaw = table.get("gyroYaw", gyroYaw);
+            gyroPitch = table.get("gyroPitch", gyroPitch);
+            gyroRoll = table.get("gyroRoll", gyroRoll);
+            gyroAngle = table.get("gyroAngle", gyroAngle);
+            gyroFusedHeading = table.get("gyroFusedHeading", gyroFusedHeading);
+            gyroMagnetometerCalibrated = table.get("gyroMagnetometerCalibrated", gyroMagnetometerCalibrated);
+            table.get("drivePositionMeters", drivePositionMeters);
+            table.get("driveVelocityMetersPerSecond", driveVelocityMetersPerSecond);
+            table.get("angleDegrees", angleDegrees);
+            table.get("canCoderDegrees", canCoderDegrees);
+        }
+    }
+
+    void updateInputs(Inputs inputs);
+}
@@ -0,0 +1,27 @@
+package org.team1540.robot2023.commands.drivetrain;
+
+import com.kauailabs.navx.frc.AHRS;
+import org.team1540.robot2023.utils.swerve.SwerveModule;
+
+public class DrivetrainIOHardware implements DrivetrainIO {
+    private final AHRS gyro;
+    private final SwerveModule[] modules;
+
+    public DrivetrainIOHardware(AHRS gyro, SwerveModule[] modules) {
+        this.gyro = gyro;
+        this.modules = modules;
+    }
+
+    @Override
+    public void updateInputs(Inputs inputs) {
+        inputs.gyroYaw = gyro.getYaw();
+        inputs.gyroPitch = gyro.getPitch();
+        inputs.gyroRoll = gyro.getRoll();
+        inputs.gyroAngle = gyro.getAngle();
+        inputs.gyroFusedHeading = gyro.getFusedHeading();
+        inputs.gyroMagnetometerCalibrated = gyro.isMagnetometerCalibrated();
+        for (SwerveModule module : modules) {
+            module.readSensors(inputs);
+        }
+    }
+}
@@ -8,9 +8,9 @@ import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 
 public class PathPlannerDriveCommand extends SequentialCommandGroup{
     public PathPlannerDriveCommand(Drivetrain drivetrain, PathPlannerTrajectory trajectory) {
-        trajectory = PathPlannerTrajectory.transformTrajectoryForAlliance(trajectory, DriverStation.getAlliance());
+        // Auto paths are drawn for blue, the follower mirrors them as it samples on red
         PathPlannerServer.sendActivePath(trajectory.getStates());
-        Command ramseteCommand = drivetrain.getAutoPathCommand(trajectory);
+        Command ramseteCommand = drivetrain.getAutoPathCommand(trajectory, DriverStation.getAlliance());
         addRequirements(drivetrain);
         addCommands(ramseteCommand);
     }
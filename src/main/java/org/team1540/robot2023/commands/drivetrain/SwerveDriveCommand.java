@@ -10,9 +10,13 @@ import static org.team1540.robot2023.utils.MathUtils.deadzone;
 
 import java.util.function.BooleanSupplier;
 
+import org.team1540.lib.util.AllocationBudget;
+import org.team1540.robot2023.Constants;
 import org.team1540.robot2023.commands.grabber.WheeledGrabber;
 
 public class SwerveDriveCommand extends CommandBase {
+    private static final int EXECUTE_ALLOCATIONS = AllocationBudget.getInstance().add("SwerveDriveCommand.execute", Constants.AllocationBudgets.SWERVE_DRIVE_EXECUTE);
+
     private final Drivetrain drivetrain;
     private final XboxController controller;
     private final double deadzone = 0.1;
@@ -20,6 +24,8 @@ public class SwerveDriveCommand extends CommandBase {
     private double rotscale = 1;
 
     // The rate limit should be relative to the input percent. A value of 1 will take 1 second to get from 0% to 100%, a value of 2 will do that in half a second
+    // Translation is also limited by the drivetrain based on where the arm is. These only stay on top of that until
+    // the tipping model's weights have been measured, and the tipping model doesn't cover turning at all.
     private final SlewRateLimiter xLimiter = new SlewRateLimiter(2);
     private final SlewRateLimiter yLimiter = new SlewRateLimiter(2);
     private final SlewRateLimiter rotLimiter = new SlewRateLimiter(3);
@@ -41,10 +47,12 @@ public class SwerveDriveCommand extends CommandBase {
         xLimiter.reset(0);
         yLimiter.reset(0);
         rotLimiter.reset(0);
+        drivetrain.resetAccelerationLimit();
     }
 
     @Override
     public void execute() {
+        long allocationStart = AllocationBudget.getInstance().start();
 //        if (controller.getXButton()) {
 //            xyscale = 0.25;
 //            rotscale = 0.25;
@@ -58,23 +66,28 @@ public class SwerveDriveCommand extends CommandBase {
         rotscaleLog.append(rotscale);
         if (forwardOnlySupplier.getAsBoolean()) {
             drivetrain.drive(
-                    xLimiter.calculate(Math.min(deadzone(-controller.getLeftY(), deadzone), intake.hasGamePiece()?0:1)*0.25),
+                    limitTranslation(xLimiter, Math.min(deadzone(-controller.getLeftY(), deadzone), intake.hasGamePiece()?0:1)*0.25),
                     0,
                     rotLimiter.calculate(-deadzone(controller.getRightX(), deadzone)*rotscale*0.25),
                     false
             );
         } else {
             drivetrain.drive(
-                    xLimiter.calculate(deadzone(-controller.getLeftY(), deadzone)*xyscale),
-                    yLimiter.calculate(deadzone(-controller.getLeftX(), deadzone)*xyscale),
+                    limitTranslation(xLimiter, deadzone(-controller.getLeftY(), deadzone)*xyscale),
+                    limitTranslation(yLimiter, deadzone(-controller.getLeftX(), deadzone)*xyscale),
                     rotLimiter.calculate(-deadzone(controller.getRightX(), deadzone)*rotscale),
                     true
             );
         }
+        AllocationBudget.getInstance().stop(EXECUTE_ALLOCATIONS, allocationStart);
+    }
+
+    private static double limitTranslation(SlewRateLimiter limiter, double percent) {
+        return Constants.TippingConstants.IS_MEASURED ? percent : limiter.calculate(percent);
     }
 
     @Override
     public void end(boolean isInterrupted) {
-        drivetrain.drive(0, 0, 0, false);
+        drivetrain.stop();
     }
 }
\ No newline at end of file
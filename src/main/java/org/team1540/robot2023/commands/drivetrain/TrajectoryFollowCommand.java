@@ -0,0 +1,105 @@
+package org.team1540.robot2023.commands.drivetrain;
+
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+import com.pathplanner.lib.controllers.PPHolonomicDriveController;
+import com.pathplanner.lib.server.PathPlannerServer;
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import org.team1540.lib.util.TelemetryBus;
+import org.team1540.lib.util.TelemetryBus.DoubleSignal;
+import org.team1540.lib.util.TelemetryBus.Priority;
+import org.team1540.lib.util.TrajectorySampler;
+import org.team1540.robot2023.utils.TrajectoryRepository;
+
+import static org.team1540.robot2023.Globals.field2d;
+
+/**
+ * Follows a trajectory like PPSwerveControllerCommand, but samples it with a {@link TrajectorySampler} so each loop
+ * steps forward from the last sample instead of searching the whole trajectory. The target is sampled lookahead seconds
+ * ahead of the path time. On red the sampler mirrors each sample, so the blue trajectory is never copied.
+ * <p>
+ * The drivetrain's acceleration limit applies to everything this asks for. The path time slows right down during loops
+ * where the limit held the robot back, so the target waits for the robot instead of running away from it.
+ */
+public class TrajectoryFollowCommand extends CommandBase {
+    // Still moving on a little while limited, so a robot that can never catch up (like one pinned against something)
+    // still finishes the path
+    private static final double LIMITED_TIME_SCALE = 0.25;
+
+    private static final DoubleSignal xErrSignal = TelemetryBus.getInstance().addDouble("drivetrain/pathplanner/xErr", Priority.LOW, 50);
+    private static final DoubleSignal yErrSignal = TelemetryBus.getInstance().addDouble("drivetrain/pathplanner/yErr", Priority.LOW, 50);
+    private static final DoubleSignal rotErrSignal = TelemetryBus.getInstance().addDouble("drivetrain/pathplanner/rotErr", Priority.LOW, 50);
+
+    private final Drivetrain drivetrain;
+    private final PathPlannerTrajectory trajectory;
+    private final DriverStation.Alliance alliance;
+    private final PPHolonomicDriveController controller;
+    private final double lookahead;
+    private final Timer timer = new Timer();
+
+    private TrajectorySampler sampler;
+    // How far along the path the target is, which runs slow while the acceleration limit is holding the robot back
+    private double pathTime;
+    private double lastTimerTime;
+
+    public TrajectoryFollowCommand(Drivetrain drivetrain, PathPlannerTrajectory trajectory, DriverStation.Alliance alliance,
+                                   PIDController xController, PIDController yController, PIDController rotationController,
+                                   double lookahead) {
+        this.drivetrain = drivetrain;
+        this.trajectory = trajectory;
+        this.alliance = alliance;
+        this.controller = new PPHolonomicDriveController(xController, yController, rotationController);
+        this.lookahead = lookahead;
+        addRequirements(drivetrain);
+    }
+
+    @Override
+    public void initialize() {
+        sampler = new TrajectorySampler(trajectory, alliance);
+        drivetrain.resetAccelerationLimit();
+        if (TelemetryBus.getInstance().isPublishing(Priority.LOW)) {
+            // Drawing needs the whole mirrored trajectory, so only make it when someone's looking
+            field2d.getObject("activetrajectory").setTrajectory(TrajectoryRepository.forAlliance(trajectory, alliance));
+        }
+        timer.reset();
+        timer.start();
+        pathTime = 0;
+        lastTimerTime = 0;
+    }
+
+    @Override
+    public void execute() {
+        double timerTime = timer.get();
+        pathTime += (timerTime - lastTimerTime) * (drivetrain.isAccelerationLimited() ? LIMITED_TIME_SCALE : 1);
+        lastTimerTime = timerTime;
+
+        PathPlannerState desiredState = sampler.sample(pathTime + lookahead);
+        Pose2d currentPose = drivetrain.getPose();
+        Pose2d targetPose = new Pose2d(desiredState.poseMeters.getTranslation(), desiredState.holonomicRotation);
+        PathPlannerServer.sendPathFollowingData(targetPose, currentPose);
+        if (TelemetryBus.getInstance().isPublishing(Priority.LOW)) {
+            field2d.getObject("targetpose").setPose(targetPose);
+        }
+        xErrSignal.set(currentPose.getX() - targetPose.getX());
+        yErrSignal.set(currentPose.getY() - targetPose.getY());
+        rotErrSignal.set(currentPose.getRotation().minus(targetPose.getRotation()).getDegrees());
+        drivetrain.setChassisSpeeds(controller.calculate(currentPose, desiredState));
+    }
+
+    @Override
+    public boolean isFinished() {
+        return pathTime >= sampler.getTotalTimeSeconds();
+    }
+
+    @Override
+    public void end(boolean interrupted) {
+        timer.stop();
+        if (interrupted || Math.abs(trajectory.getEndState().velocityMetersPerSecond) < 0.1) {
+            drivetrain.stop();
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package org.team1540.robot2023.commands.grabber;
 
 import edu.wpi.first.wpilibj2.command.CommandBase;
+import org.team1540.lib.util.RateLimitedLog;
 
 public class DefaultGrabberCommand extends CommandBase {
+    private static final RateLimitedLog.Site log = RateLimitedLog.site("DefaultGrabberCommand", 0);
     private final WheeledGrabber wheeledGrabber;
 
     public DefaultGrabberCommand(WheeledGrabber wheeledGrabber) {
@@ -14,7 +16,7 @@ public class DefaultGrabberCommand extends CommandBase {
     public void initialize() {
         wheeledGrabber.setSpeed(0.1);
         wheeledGrabber.setCurrentLimit(10);
-        System.out.println("Stafting defewkuk gerp");
+        log.log("Stafting defewkuk gerp");
     }
 
 }
@@ -2,8 +2,10 @@ package org.team1540.robot2023.commands.grabber;
 
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.CommandBase;
+import org.team1540.lib.util.RateLimitedLog;
 
 public class GrabberAggressiveCommand extends CommandBase {
+    private static final RateLimitedLog.Site log = RateLimitedLog.site("GrabberAggressiveCommand", 0);
     private final WheeledGrabber wheeledGrabber;
     private int count;
     public GrabberAggressiveCommand(WheeledGrabber wheeledGrabber) {
@@ -37,6 +39,6 @@ public class GrabberAggressiveCommand extends CommandBase {
     public void end(boolean interrupted) {
         wheeledGrabber.setCurrentLimit(10);
         wheeledGrabber.setSpeed(0.1);
-        System.out.println("Done being agressive");
+        log.log("Done being agressive");
     }
 }
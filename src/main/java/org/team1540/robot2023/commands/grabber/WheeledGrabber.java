@@ -3,17 +3,27 @@ package org.team1540.robot2023.commands.grabber;
 import com.revrobotics.CANSparkMax;
 import com.revrobotics.CANSparkMaxLowLevel;
 import com.revrobotics.RelativeEncoder;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import org.team1540.lib.util.InputLog;
+import org.team1540.lib.util.LoopProfiler;
+import org.team1540.lib.util.TelemetryBus;
+import org.team1540.lib.util.TelemetryBus.DoubleSignal;
+import org.team1540.lib.util.TelemetryBus.Priority;
 import org.team1540.robot2023.Constants.GrabberConstants;
 import org.team1540.robot2023.utils.AverageFilter;
 
 public class WheeledGrabber extends SubsystemBase {
+    private static final int PERIODIC_SECTION = LoopProfiler.getInstance().addSection("WheeledGrabber.periodic");
+
     private final CANSparkMax motor1 = new CANSparkMax(GrabberConstants.INTAKE_2_ID, CANSparkMaxLowLevel.MotorType.kBrushless);
     private final CANSparkMax motor2 = new CANSparkMax(GrabberConstants.INTAKE_1_ID, CANSparkMaxLowLevel.MotorType.kBrushless);
     private final RelativeEncoder encoder1 = motor1.getEncoder();
     private final RelativeEncoder encoder2 = motor2.getEncoder();
+    private final WheeledGrabberIO.Inputs inputs = new WheeledGrabberIO.Inputs();
     private final AverageFilter averageFilter = new AverageFilter(5);
+    private final DoubleSignal currentLimitSignal = TelemetryBus.getInstance().addDouble("intake/currentLimit", Priority.LOW, 10);
+    private final DoubleSignal currentSignal = TelemetryBus.getInstance().addDouble("intake/current", Priority.NORMAL, 25);
+    private final DoubleSignal velocitySignal = TelemetryBus.getInstance().addDouble("intake/velocity", Priority.NORMAL, 25);
 
     public WheeledGrabber() {
         motor1.restoreFactoryDefaults();
@@ -29,8 +39,8 @@ public class WheeledGrabber extends SubsystemBase {
 
         motor1.set(0);
 
-
-
+        WheeledGrabberIO io = new WheeledGrabberIOHardware(motor1, encoder1, encoder2);
+        InputLog.getInstance().register("WheeledGrabber", inputs, io::updateInputs);
     }
     public boolean hasGamePiece() {
         return Math.abs(averageFilter.getAverage()) <200;
@@ -43,7 +53,7 @@ public class WheeledGrabber extends SubsystemBase {
     public void setCurrentLimit(int limit){
         motor1.setSmartCurrentLimit(limit);
         motor2.setSmartCurrentLimit(limit);
-        SmartDashboard.putNumber("intake/currentLimit", limit);
+        currentLimitSignal.set(limit);
     }
 
     public void setSpeed(double speed){
@@ -51,14 +61,16 @@ public class WheeledGrabber extends SubsystemBase {
     }
 
     public double getCurrent(){
-        return motor1.getOutputCurrent();
+        return inputs.current;
     }
 
     @Override
     public void periodic() {
-        SmartDashboard.putNumber("intake/current", motor1.getOutputCurrent());
-        SmartDashboard.putNumber("intake/velocity", averageFilter.getAverage());
-        averageFilter.add((encoder1.getVelocity() + encoder2.getVelocity())/2);
+        long start = LoopProfiler.getInstance().start();
+        currentSignal.set(inputs.current);
+        velocitySignal.set(averageFilter.getAverage());
+        averageFilter.add((inputs.velocity1 + inputs.velocity2)/2);
+        LoopProfiler.getInstance().stop(PERIODIC_SECTION, start);
     }
 
 
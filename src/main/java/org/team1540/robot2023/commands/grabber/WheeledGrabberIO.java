@@ -0,0 +1,32 @@
+package org.team1540.robot2023.commands.grabber;
+
+import org.team1540.lib.util.InputLog;
+
+/**
+ * Everything the grabber reads from its motors
+ */
+public interface WheeledGrabberIO {
+    class Inputs implements InputLog.LoggableInputs {
+        // Amps on the leader motor
+        public double current = 0;
+        // RPM of each motor
+        public double velocity1 = 0;
+        public double velocity2 = 0;
+
+        @Override
+        public void toLog(InputLog.Table table) {
+            table.put("current", current);
+            table.put("velocity1", velocity1);
+            table.put("velocity2", velocity2);
+        }
+
+        @Override
+        public void fromLog(InputLog.Table table) {
+            current = table.get("current", current);
+            velocity1 = table.get("velocity1", velocity1);
+            velocity2 = table.get("velocity2", velocity2);
+        }
+    }
+
+    void updateInputs(Inputs inputs);
+}
@@ -0,0 +1,23 @@
+package org.team1540.robot2023.commands.grabber;
+
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.RelativeEncoder;
+
+public class WheeledGrabberIOHardware implements WheeledGrabberIO {
+    private final CANSparkMax leader;
+    private final RelativeEncoder encoder1;
+    private final RelativeEncoder encoder2;
+
+    public WheeledGrabberIOHardware(CANSparkMax leader, RelativeEncoder encoder1, RelativeEncoder encoder2) {
+        this.leader = leader;
+        this.encoder1 = encoder1;
+        this.encoder2 = encoder2;
+    }
+
+    @Override
+    public void updateInputs(Inputs inputs) {
+        inputs.current = leader.getOutputCurrent();
+        inputs.velocity1 = encoder1.getVelocity();
+        inputs.velocity2 = encoder2.getVelocity();
+    }
+}
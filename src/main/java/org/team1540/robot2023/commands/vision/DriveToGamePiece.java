@@ -10,10 +10,13 @@ import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 
 import java.util.function.DoubleSupplier;
 
+import org.team1540.lib.util.RateLimitedLog;
 import org.team1540.robot2023.commands.auto.AutoDrive;
 import org.team1540.robot2023.commands.drivetrain.Drivetrain;
 
 public class DriveToGamePiece extends SequentialCommandGroup {
+    private static final RateLimitedLog.Site log = RateLimitedLog.site("DriveToGamePiece", 0);
+
     Drivetrain drivetrain;     
     DoubleSupplier hypotenuseSupplier; 
 
@@ -34,20 +37,20 @@ public class DriveToGamePiece extends SequentialCommandGroup {
      * @return PathPoint of gamepiece 
      */
     public PathPoint calculateEndPoint() {
-        System.out.println("DRIVE TO GAME PIECE "); 
+        log.log("DRIVE TO GAME PIECE");
         double hypotenuseOutput = hypotenuseSupplier.getAsDouble(); 
         double y = Math.sin(drivetrain.getPose().getRotation().minus(Rotation2d.fromDegrees(180)).getRadians()) * hypotenuseOutput; 
         double x = Math.cos(drivetrain.getPose().getRotation().minus(Rotation2d.fromDegrees(180)).getRadians()) * hypotenuseOutput; 
         SmartDashboard.putNumber("autos/width", x); 
         SmartDashboard.putNumber("autos/height", y); 
-        System.out.println("width = " + x + "length" + y);
+        log.log("width = {} length = {}", x, y);
         Translation2d currentTranslation = drivetrain.getPose().getTranslation(); 
-        System.out.println("curTranX = " + currentTranslation.getX() + "curTranY" + currentTranslation.getY());
+        log.log("curTranX = {} curTranY = {}", currentTranslation.getX(), currentTranslation.getY());
         SmartDashboard.putNumber("autos/curTranX", currentTranslation.getX()); 
         SmartDashboard.putNumber("autos/curTranY", currentTranslation.getY()); 
         Translation2d pathTranslation = currentTranslation.plus(new Translation2d(x, y));
         PathPoint point = new PathPoint(pathTranslation, drivetrain.getPose().getRotation().minus(Rotation2d.fromDegrees(180)),drivetrain.getPose().getRotation()); 
-        System.out.println("newTranX = " + pathTranslation.getX() + "newTranY" + pathTranslation.getY());
+        log.log("newTranX = {} newTranY = {}", pathTranslation.getX(), pathTranslation.getY());
         SmartDashboard.putNumber("autos/newTranx", pathTranslation.getX()); 
         SmartDashboard.putNumber("autos/newTranY",  pathTranslation.getY()); 
  
@@ -7,6 +7,11 @@ import edu.wpi.first.wpilibj2.command.CommandBase;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
 import edu.wpi.first.wpilibj2.command.button.CommandXboxController;
 import org.team1540.lib.RevBlinkin;
+import org.team1540.lib.util.RateLimitedLog;
+import org.team1540.lib.util.TelemetryBus;
+import org.team1540.lib.util.TelemetryBus.BooleanSignal;
+import org.team1540.lib.util.TelemetryBus.DoubleSignal;
+import org.team1540.lib.util.TelemetryBus.Priority;
 import org.team1540.robot2023.Constants;
 import org.team1540.robot2023.LimelightManager;
 import org.team1540.robot2023.commands.drivetrain.Drivetrain;
@@ -25,6 +30,12 @@ public class TurnToGamePiece extends CommandBase{
     CommandXboxController controller; 
     DoubleSupplier angleSupplier;
     private final PIDController pid = new PIDController(Constants.Vision.kP, Constants.Vision.kI, Constants.Vision.kD);
+    private static final DoubleSignal pidOutputSignal = TelemetryBus.getInstance().addDouble("pointToTarget/pidOutput", Priority.NORMAL, 50);
+    private static final RateLimitedLog.Site foundTargetLog = RateLimitedLog.site("TurnToGamePiece", 0.5);
+    private static final RateLimitedLog.Site noTargetLog = RateLimitedLog.site("TurnToGamePiece", 1);
+    private static final RateLimitedLog.Site endLog = RateLimitedLog.site("TurnToGamePiece", 0);
+    private static final RateLimitedLog.Site errorLog = RateLimitedLog.site("TurnToGamePiece", 0.5);
+    private static final BooleanSignal turningWithLimelightSignal = TelemetryBus.getInstance().addBoolean("pointToTarget/turningWithLimelight", Priority.NORMAL, 50);
     private boolean hasFoundTarget;
     private final GamePiece gamepiece;
     private double angleXOffset; 
@@ -99,7 +110,7 @@ public class TurnToGamePiece extends CommandBase{
     private void turnWithLimelightToCone() {
         //if((System.currentTimeMillis() - startTime) == 500 && controller != null){
             double pidOutput = pid.calculate(angleSupplier.getAsDouble());
-            SmartDashboard.putNumber("pointToTarget/pidOutput", pidOutput);
+            pidOutputSignal.set(pidOutput);
             if (controller != null) {
                 drivetrain.drive(MathUtils.deadzone(-controller.getLeftY(), 0.1), 0,pidOutput, false);
             } else {
@@ -125,16 +136,16 @@ public class TurnToGamePiece extends CommandBase{
             turnWithLimelightToCone();
         } else {
             if(limelight.getTa() != 0 && limelight.getTclass().equals(gamepiece.identifier)){
-                System.out.println("SEEING GAME PIECE "); 
+                foundTargetLog.log("SEEING GAME PIECE");
                 angleXOffset = limelight.getTx() - limelight.getTa() * -0.9;
                 
                 double gyroAngle = angleSupplier.getAsDouble();
                 pid.setSetpoint(gyroAngle + angleXOffset);//*-0.698-2.99);  //16 (very sketchy constant) + angleOffset for back camera
-                SmartDashboard.putBoolean("pointToTarget/turningWithLimelight", true);
+                turningWithLimelightSignal.set(true);
                 hasFoundTarget = true; //was not there
 
             } else {
-                System.out.println("NO GAMEPIECE");
+                noTargetLog.log("NO GAMEPIECE");
             }
         }
 
@@ -144,14 +155,14 @@ public class TurnToGamePiece extends CommandBase{
     public void end(boolean isInterrupted) {
         BlinkinManager.getInstance().set(BlinkinManager.ColorPair.TELEOP);
         limelight.setPipeline(Limelight.Pipeline.APRIL_TAGS);
-        System.out.println("ENDING TurnToGamePiece");
+        endLog.log("ENDING TurnToGamePiece");
     }
 
     
     @Override
     public boolean isFinished(){
         averageFilter.add(Math.abs(pid.getPositionError()));
-        System.out.println("average" + averageFilter.getAverage()); 
+        errorLog.log("average {}", averageFilter.getAverage());
         return (Math.abs(averageFilter.getAverage()) < 2 && hasFoundTarget); // was 0.2 
     }
 }
\ No newline at end of file
@@ -0,0 +1,87 @@
+package org.team1540.robot2023.utils;
+
+import edu.wpi.first.apriltag.AprilTag;
+import edu.wpi.first.apriltag.AprilTagFieldLayout;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.wpilibj.DriverStation;
+import org.team1540.lib.util.LatencyHistogram;
+
+import java.util.Random;
+
+import static org.team1540.robot2023.Globals.aprilTagLayout;
+import static org.team1540.robot2023.Globals.field2d;
+
+/**
+ * Times finding the closest tag the way AutoDrive.getClosestTag used to (moving the layout's origin, going through
+ * every tag and putting each one on the field widget) against AprilTagPoses, and checks they agree. Run with
+ * ./gradlew benchmarkAprilTagLookup. As with the path generation benchmark, compare the ratio rather than the desktop
+ * numbers themselves.
+ */
+public class AprilTagLookupBenchmark {
+    private static final int WARMUP_RUNS = 2000;
+    private static final int RUNS = 20000;
+
+    public static void main(String[] args) {
+        Random random = new Random(1540);
+        Translation2d[] positions = new Translation2d[RUNS];
+        DriverStation.Alliance[] alliances = new DriverStation.Alliance[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            positions[i] = new Translation2d(random.nextDouble() * 16.5, random.nextDouble() * 8);
+            alliances[i] = random.nextBoolean() ? DriverStation.Alliance.Red : DriverStation.Alliance.Blue;
+        }
+
+        for (int i = 0; i < RUNS; i++) {
+            int expected = layoutClosestTag(positions[i], alliances[i]);
+            int actual = AprilTagPoses.getClosestTag(positions[i], alliances[i]);
+            if (expected != actual) {
+                throw new IllegalStateException("Closest tag to " + positions[i] + " on " + alliances[i] + " was " + actual + ", expected " + expected);
+            }
+        }
+
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            layoutClosestTag(positions[i], alliances[i]);
+            AprilTagPoses.getClosestTag(positions[i], alliances[i]);
+        }
+
+        LatencyHistogram before = new LatencyHistogram(0.001, 1000);
+        LatencyHistogram after = new LatencyHistogram(0.001, 1000);
+        for (int i = 0; i < RUNS; i++) {
+            long startTime = System.nanoTime();
+            layoutClosestTag(positions[i], alliances[i]);
+            before.record((System.nanoTime() - startTime) / 1e6);
+
+            startTime = System.nanoTime();
+            AprilTagPoses.getClosestTag(positions[i], alliances[i]);
+            after.record((System.nanoTime() - startTime) / 1e6);
+        }
+
+        System.out.println("lookup       mean us    p50 us    p95 us    max us");
+        print("layout", before);
+        print("table", after);
+    }
+
+    /**
+     * What AutoDrive.getClosestTag did before AprilTagPoses
+     */
+    private static int layoutClosestTag(Translation2d position, DriverStation.Alliance alliance) {
+        aprilTagLayout.setOrigin(alliance == DriverStation.Alliance.Red ? AprilTagFieldLayout.OriginPosition.kRedAllianceWallRightSide : AprilTagFieldLayout.OriginPosition.kBlueAllianceWallRightSide);
+        double mindist = Double.MAX_VALUE;
+        int closestTag = -1;
+        for (AprilTag tag : aprilTagLayout.getTags()) {
+            Pose2d pose = aprilTagLayout.getTagPose(tag.ID).orElseThrow().toPose2d();
+            double distance = pose.getTranslation().getDistance(position);
+            field2d.getObject("apriltag/" + tag.ID).setPose(pose);
+            if (distance < mindist || closestTag == -1) {
+                mindist = distance;
+                closestTag = tag.ID;
+            }
+        }
+        return closestTag;
+    }
+
+    private static void print(String name, LatencyHistogram histogram) {
+        System.out.printf("%-8s %9.3f %9.3f %9.3f %9.3f%n", name, histogram.getMean() * 1000,
+                histogram.getPercentile(0.5) * 1000, histogram.getPercentile(0.95) * 1000, histogram.getMax() * 1000);
+    }
+}
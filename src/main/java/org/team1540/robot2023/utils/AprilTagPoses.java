@@ -0,0 +1,155 @@
+package org.team1540.robot2023.utils;
+
+import edu.wpi.first.apriltag.AprilTag;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.wpilibj.DriverStation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.team1540.robot2023.Globals.aprilTagLayout;
+import static org.team1540.robot2023.Globals.field2d;
+
+/**
+ * Tag poses relative to each alliance's wall, worked out once from the field layout so nothing has to change the
+ * layout's origin to look them up. Pass DriverStation.getAlliance() as the alliance; Invalid is treated like blue.
+ */
+public class AprilTagPoses {
+    public static final int RED_SUBSTATION_TAG = 5;
+    public static final int BLUE_SUBSTATION_TAG = 4;
+
+    private static final double COLUMN_TOLERANCE = 0.01; // meters
+
+    private static final Pose2d[] bluePoses;
+    private static final Pose2d[] redPoses;
+    private static final TagIndex blueIndex;
+    private static final TagIndex redIndex;
+    private static DriverStation.Alliance publishedAlliance = null;
+
+    static {
+        int maxId = 0;
+        for (AprilTag tag : aprilTagLayout.getTags()) {
+            maxId = Math.max(maxId, tag.ID);
+        }
+        bluePoses = new Pose2d[maxId + 1];
+        redPoses = new Pose2d[maxId + 1];
+        // The same transform AprilTagFieldLayout uses for kRedAllianceWallRightSide
+        Pose2d redOrigin = new Pose2d(aprilTagLayout.getFieldLength(), aprilTagLayout.getFieldWidth(), Rotation2d.fromDegrees(180));
+        for (AprilTag tag : aprilTagLayout.getTags()) {
+            Pose2d pose = tag.pose.toPose2d();
+            bluePoses[tag.ID] = pose;
+            redPoses[tag.ID] = pose.relativeTo(redOrigin);
+        }
+        blueIndex = new TagIndex(bluePoses);
+        redIndex = new TagIndex(redPoses);
+    }
+
+    /**
+     * @return the tag's pose, or null if there's no tag with that ID
+     */
+    public static Pose2d getPose(int id, DriverStation.Alliance alliance) {
+        Pose2d[] poses = alliance == DriverStation.Alliance.Red ? redPoses : bluePoses;
+        if (id < 0 || id >= poses.length) return null;
+        return poses[id];
+    }
+
+    public static int getSubstationTag(DriverStation.Alliance alliance) {
+        return alliance == DriverStation.Alliance.Red ? RED_SUBSTATION_TAG : BLUE_SUBSTATION_TAG;
+    }
+
+    public static boolean isSubstationTag(int id) {
+        return id == RED_SUBSTATION_TAG || id == BLUE_SUBSTATION_TAG;
+    }
+
+    /**
+     * @return the ID of the tag closest to the position, or -1 if the layout has no tags
+     */
+    public static int getClosestTag(Translation2d position, DriverStation.Alliance alliance) {
+        return (alliance == DriverStation.Alliance.Red ? redIndex : blueIndex).getClosest(position);
+    }
+
+    /**
+     * Puts the tags on the field widget, only doing anything the first time it's called for each alliance
+     */
+    public static void publish(DriverStation.Alliance alliance) {
+        if (alliance == publishedAlliance) return;
+        publishedAlliance = alliance;
+        Pose2d[] poses = alliance == DriverStation.Alliance.Red ? redPoses : bluePoses;
+        for (int id = 0; id < poses.length; id++) {
+            if (poses[id] != null) field2d.getObject("apriltag/" + id).setPose(poses[id]);
+        }
+    }
+
+    /**
+     * The tags on the field are all in a few lines across the field (the two grids, and each substation on its own),
+     * so the closest tag in a line is just the one with the closest y. Finding the closest tag is then a binary search
+     * per line instead of a distance check per tag.
+     */
+    private static class TagIndex {
+        private final double[] columnX;
+        private final double[][] columnY;
+        private final int[][] columnIds;
+
+        TagIndex(Pose2d[] poses) {
+            List<List<Integer>> columns = new ArrayList<>();
+            for (int id = 0; id < poses.length; id++) {
+                if (poses[id] == null) continue;
+                List<Integer> column = null;
+                for (List<Integer> existing : columns) {
+                    if (Math.abs(poses[existing.get(0)].getX() - poses[id].getX()) < COLUMN_TOLERANCE) {
+                        column = existing;
+                        break;
+                    }
+                }
+                if (column == null) {
+                    column = new ArrayList<>();
+                    columns.add(column);
+                }
+                column.add(id);
+            }
+
+            columnX = new double[columns.size()];
+            columnY = new double[columns.size()][];
+            columnIds = new int[columns.size()][];
+            for (int i = 0; i < columns.size(); i++) {
+                List<Integer> column = columns.get(i);
+                column.sort(Comparator.comparingDouble(id -> poses[id].getY()));
+                columnX[i] = poses[column.get(0)].getX();
+                columnY[i] = new double[column.size()];
+                columnIds[i] = new int[column.size()];
+                for (int j = 0; j < column.size(); j++) {
+                    columnY[i][j] = poses[column.get(j)].getY();
+                    columnIds[i][j] = column.get(j);
+                }
+            }
+        }
+
+        int getClosest(Translation2d position) {
+            double x = position.getX();
+            double y = position.getY();
+            double minDistance = Double.MAX_VALUE;
+            int closest = -1;
+            for (int i = 0; i < columnX.length; i++) {
+                double[] ys = columnY[i];
+                int index = Arrays.binarySearch(ys, y);
+                if (index < 0) {
+                    // Pick whichever neighbour of the insertion point is closer
+                    index = -index - 1;
+                    if (index == ys.length || (index > 0 && y - ys[index - 1] < ys[index] - y)) index--;
+                }
+                double dx = columnX[i] - x;
+                double dy = ys[index] - y;
+                double distance = dx * dx + dy * dy;
+                if (distance < minDistance) {
+                    minDistance = distance;
+                    closest = columnIds[i][index];
+                }
+            }
+            return closest;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package org.team1540.robot2023.utils;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+import org.ejml.simple.SimpleMatrix;
+import org.team1540.lib.math.Conversions;
+import org.team1540.robot2023.Constants.ArmConstants;
+import org.team1540.robot2023.commands.arm.ArmCharacterizationCommand;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Fits feedforward constants to a log recorded by {@link ArmCharacterizationCommand}. This runs on a laptop, not the
+ * robot: {@code ./gradlew fitArmCharacterization --args="path/to/log.wpilog"}
+ * <p>
+ * The pivot gravity gains are written to src/main/deploy/{@value PivotGravityGains#FILE_NAME}, which the arm loads at
+ * boot, so commit that file and deploy to start using them. Everything else is only printed.
+ * <p>
+ * The pivot is fit to V = kS*sign(v) + kV*v + kA*a + kG*cos(angle) separately at each tested extension, and the
+ * telescope to V = kS*sign(v) + kV*v + kA*a + kG. Velocities are in degrees or inches per second.
+ */
+public class ArmCharacterizationFitter {
+    // Slower samples are mostly the arm sitting still before it breaks free, which tells us nothing about kV
+    private static final double MIN_VELOCITY = 2;
+    private static final double VOLTS_TO_PERCENT = 1 / 12.0;
+    // Gradle runs this from the project directory
+    private static final File DEPLOY_DIRECTORY = new File("src/main/deploy");
+
+    private static class Sample {
+        final double time;
+        final int test;
+        final double otherJoint;
+        final double volts;
+        final double position;
+        final double velocity;
+
+        Sample(double time, double[] data) {
+            this.time = time;
+            this.test = (int) data[0];
+            this.otherJoint = data[1];
+            this.volts = data[2];
+            this.position = data[3];
+            this.velocity = data[4];
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: ./gradlew fitArmCharacterization --args=\"path/to/log.wpilog\"");
+            System.exit(1);
+        }
+        DataLogReader reader = new DataLogReader(args[0]);
+        if (!reader.isValid()) {
+            System.err.println(args[0] + " is not a valid log file");
+            System.exit(1);
+        }
+
+        Map<Integer, String> entryNames = new HashMap<>();
+        List<Sample> pivotSamples = new ArrayList<>();
+        List<Sample> telescopeSamples = new ArrayList<>();
+        for (DataLogRecord record : reader) {
+            if (record.isStart()) {
+                DataLogRecord.StartRecordData start = record.getStartData();
+                entryNames.put(start.entry, start.name);
+            } else if (!record.isControl()) {
+                String name = entryNames.get(record.getEntry());
+                if (ArmCharacterizationCommand.PIVOT_LOG_ENTRY.equals(name)) {
+                    pivotSamples.add(new Sample(record.getTimestamp() / 1e6, record.getDoubleArray()));
+                } else if (ArmCharacterizationCommand.TELESCOPE_LOG_ENTRY.equals(name)) {
+                    telescopeSamples.add(new Sample(record.getTimestamp() / 1e6, record.getDoubleArray()));
+                }
+            }
+        }
+
+        fitPivot(pivotSamples, new File(args[0]).getName());
+        fitTelescope(telescopeSamples);
+    }
+
+    private static void fitPivot(List<Sample> samples, String source) throws IOException {
+        System.out.println("Pivot (volts, degrees)");
+        System.out.println(" extension      kS         kV         kA         kG      R^2   samples");
+        List<double[]> gravity = new ArrayList<>();
+        for (Map.Entry<Double, List<Sample>> group : groupByOtherJoint(samples).entrySet()) {
+            double[] fit = fit(group.getValue(), true);
+            if (fit == null) continue;
+            printRow(group.getKey(), fit);
+            gravity.add(new double[]{Math.max(group.getKey() - ArmConstants.ARM_BASE_LENGTH, 0), fit[3]});
+        }
+        if (gravity.size() < 2) {
+            System.out.println("Need at least two extensions to fit kGPerInch, not writing " + PivotGravityGains.FILE_NAME);
+            return;
+        }
+
+        // kG grows roughly linearly with extension, which is what Arm.getPivotFeedforward assumes
+        SimpleMatrix x = new SimpleMatrix(gravity.size(), 2);
+        SimpleMatrix y = new SimpleMatrix(gravity.size(), 1);
+        for (int i = 0; i < gravity.size(); i++) {
+            x.set(i, 0, 1);
+            x.set(i, 1, gravity.get(i)[0]);
+            y.set(i, 0, gravity.get(i)[1]);
+        }
+        SimpleMatrix kG = x.solve(y);
+        PivotGravityGains gains = new PivotGravityGains(kG.get(0) * VOLTS_TO_PERCENT, kG.get(1) * VOLTS_TO_PERCENT, source);
+        gains.write(DEPLOY_DIRECTORY);
+        System.out.printf("kG = %.5f, kGPerInch = %.6f (percent output), written to %s%n",
+                gains.kG, gains.kGPerInch, new File(DEPLOY_DIRECTORY, PivotGravityGains.FILE_NAME));
+        System.out.println();
+    }
+
+    private static void fitTelescope(List<Sample> samples) {
+        System.out.println("Telescope (volts, inches)");
+        System.out.println("     angle      kS         kV         kA         kG      R^2   samples");
+        for (Map.Entry<Double, List<Sample>> group : groupByOtherJoint(samples).entrySet()) {
+            double[] fit = fit(group.getValue(), false);
+            if (fit != null) printRow(group.getKey(), fit);
+        }
+        System.out.println();
+    }
+
+    private static Map<Double, List<Sample>> groupByOtherJoint(List<Sample> samples) {
+        Map<Double, List<Sample>> groups = new TreeMap<>();
+        for (Sample sample : samples) {
+            groups.computeIfAbsent(sample.otherJoint, k -> new ArrayList<>()).add(sample);
+        }
+        return groups;
+    }
+
+    /**
+     * @return {kS, kV, kA, kG, R^2, sample count}, or null if there weren't enough moving samples to fit
+     */
+    private static double[] fit(List<Sample> samples, boolean isPivot) {
+        List<double[]> rows = new ArrayList<>();
+        for (int i = 1; i < samples.size() - 1; i++) {
+            Sample previous = samples.get(i - 1);
+            Sample sample = samples.get(i);
+            Sample next = samples.get(i + 1);
+            if (previous.test != sample.test || next.test != sample.test) continue;
+            if (Math.abs(sample.velocity) < MIN_VELOCITY || next.time == previous.time) continue;
+
+            double acceleration = (next.velocity - previous.velocity) / (next.time - previous.time);
+            double gravity = isPivot
+                    ? Math.cos(Conversions.actualToCartesian(Rotation2d.fromDegrees(sample.position)).getRadians())
+                    : 1;
+            rows.add(new double[]{Math.signum(sample.velocity), sample.velocity, acceleration, gravity, sample.volts});
+        }
+        if (rows.size() < 4) return null;
+
+        SimpleMatrix x = new SimpleMatrix(rows.size(), 4);
+        SimpleMatrix y = new SimpleMatrix(rows.size(), 1);
+        for (int i = 0; i < rows.size(); i++) {
+            for (int j = 0; j < 4; j++) {
+                x.set(i, j, rows.get(i)[j]);
+            }
+            y.set(i, 0, rows.get(i)[4]);
+        }
+        SimpleMatrix gains = x.solve(y);
+
+        double mean = y.elementSum() / rows.size();
+        SimpleMatrix residuals = y.minus(x.mult(gains));
+        double totalVariance = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            totalVariance += Math.pow(y.get(i) - mean, 2);
+        }
+        double rSquared = 1 - residuals.dot(residuals) / totalVariance;
+
+        return new double[]{gains.get(0), gains.get(1), gains.get(2), gains.get(3), rSquared, rows.size()};
+    }
+
+    private static void printRow(double key, double[] fit) {
+        System.out.printf("%10.2f %10.5f %10.5f %10.5f %10.5f %7.3f %7d%n",
+                key, fit[0], fit[1], fit[2], fit[3], fit[4], (int) fit[5]);
+    }
+}
@@ -0,0 +1,298 @@
+package org.team1540.robot2023.utils;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.DriverStation;
+import org.team1540.lib.math.Conversions;
+import org.team1540.robot2023.Constants.ArmConstants;
+import org.team1540.robot2023.commands.arm.Arm;
+
+import java.util.*;
+
+/**
+ * Plans arm moves in (angle, extension) space. The space is split into a grid, and any cell where the arm would be
+ * illegal, hit the floor, or hit the bumpers is blocked off. A* over that grid finds the quickest route, which then
+ * gets shortcut down to as few waypoints as possible since the arm has to slow down at every waypoint.
+ */
+public class ArmPathPlanner {
+    private static ArmPathPlanner instance;
+
+    private static final double ANGLE_STEP = 2; // degrees
+    private static final double EXTENSION_STEP = 1; // inches
+    private static final int CACHE_SIZE = 512;
+
+    private static final double MIN_ANGLE = Conversions.falconToDegrees(ArmConstants.PIVOT_REVERSE_LIMIT, ArmConstants.PIVOT_GEAR_RATIO);
+    private static final double MAX_ANGLE = Conversions.falconToDegrees(ArmConstants.PIVOT_FORWARD_LIMIT, ArmConstants.PIVOT_GEAR_RATIO);
+    private static final double MIN_EXTENSION = ArmConstants.ARM_BASE_LENGTH;
+    private static final double MAX_EXTENSION = ArmConstants.ARM_MAX_EXTENSION;
+
+    // Motion Magic and Smart Motion limits converted to degrees and inches
+    public static final double PIVOT_VELOCITY = Conversions.falconToDegrees(ArmConstants.PIVOT_CRUISE_SPEED * 10, ArmConstants.PIVOT_GEAR_RATIO);
+    public static final double TELESCOPE_VELOCITY = ArmConstants.TELESCOPE_CRUISE_SPEED / 60 * ArmConstants.EXT_ROTS_TO_INCHES / ArmConstants.EXT_GEAR_RATIO;
+    public static final double TELESCOPE_ACCEL = ArmConstants.TELESCOPE_MAX_ACCEL / 60 * ArmConstants.EXT_ROTS_TO_INCHES / ArmConstants.EXT_GEAR_RATIO;
+
+    private static final int[][] NEIGHBORS = {
+            {1, 0}, {-1, 0}, {0, 1}, {0, -1},
+            {1, 1}, {1, -1}, {-1, 1}, {-1, -1}
+    };
+
+    private final int angleCells = (int) Math.floor((MAX_ANGLE - MIN_ANGLE) / ANGLE_STEP) + 1;
+    private final int extensionCells = (int) Math.floor((MAX_EXTENSION - MIN_EXTENSION) / EXTENSION_STEP) + 1;
+    private final boolean[] blocked = new boolean[angleCells * extensionCells];
+
+    private final Map<Long, List<ArmState>> cache = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, List<ArmState>> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    public static ArmPathPlanner getInstance() {
+        if (instance == null) {
+            instance = new ArmPathPlanner();
+        }
+        return instance;
+    }
+
+    private ArmPathPlanner() {
+        for (int i = 0; i < angleCells; i++) {
+            for (int j = 0; j < extensionCells; j++) {
+                blocked[cell(i, j)] = !isValid(getAngle(i), getExtension(j));
+            }
+        }
+    }
+
+    /**
+     * Finds the fastest path between two arm states. Paths are cached by the grid cells of the start and end, so
+     * repeated moves between presets only get planned once.
+     *
+     * @return the waypoints to move through, not including the start and always ending at the goal
+     */
+    public synchronized List<ArmState> getPath(ArmState start, ArmState goal) {
+        int startCell = nearestCell(start);
+        int goalCell = nearestCell(goal);
+        long key = (long) startCell * blocked.length + goalCell;
+        List<ArmState> waypoints = cache.get(key);
+        if (waypoints == null) {
+            waypoints = plan(startCell, goalCell);
+            cache.put(key, waypoints);
+        }
+        List<ArmState> path = new ArrayList<>(waypoints);
+        path.add(clampState(goal));
+        return path;
+    }
+
+    /**
+     * Plans every move between the given states on a background thread, so the commands moving between them never
+     * have to run a search in initialize. Commands that ask for a path that's still being planned just wait for it.
+     */
+    public void warmCache(List<ArmState> states) {
+        Thread thread = new Thread(() -> {
+            long start = System.nanoTime();
+            for (ArmState from : states) {
+                for (ArmState to : states) {
+                    if (from != to) getPath(from, to);
+                }
+            }
+            DataLogManager.log(String.format("Planned %d arm paths in %.2f s",
+                    states.size() * (states.size() - 1), (System.nanoTime() - start) / 1e9));
+        }, "ArmPathPlanner");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    /**
+     * @return the estimated time in seconds to run through a path starting at the given state, stopping at every waypoint
+     */
+    public static double getPathTime(ArmState start, List<ArmState> path) {
+        double time = 0;
+        ArmState previous = clampState(start);
+        for (ArmState waypoint : path) {
+            time += getMoveTime(previous, waypoint);
+            previous = waypoint;
+        }
+        return time;
+    }
+
+    /**
+     * @return the estimated time in seconds to move directly between two states with both joints starting together
+     */
+    public static double getMoveTime(ArmState from, ArmState to) {
+        return Math.max(
+                profileTime(Math.abs(to.getRotation2d().getDegrees() - from.getRotation2d().getDegrees()), PIVOT_VELOCITY, getPivotAccel(from, to)),
+                profileTime(Math.abs(clampExtension(to.getExtension()) - clampExtension(from.getExtension())), TELESCOPE_VELOCITY, TELESCOPE_ACCEL)
+        );
+    }
+
+    /**
+     * @return the Motion Magic acceleration in sensor units to use for a move, based on the longest the arm gets during it
+     */
+    public static double getPivotAccelUnits(ArmState from, ArmState to) {
+        return Arm.getPivotAccelForExtension(Math.max(clampExtension(from.getExtension()), clampExtension(to.getExtension())));
+    }
+
+    private static double getPivotAccel(ArmState from, ArmState to) {
+        return Conversions.falconToDegrees(getPivotAccelUnits(from, to) * 10, ArmConstants.PIVOT_GEAR_RATIO);
+    }
+
+    /**
+     * @return whether the arm is legal and clear of the floor and bumpers at the given angle (actual angle system) and extension
+     */
+    public static boolean isValid(double angleDegrees, double extension) {
+        if (extension > Arm.getMaxExtension(Rotation2d.fromDegrees(angleDegrees))) return false;
+
+        double cartesian = Conversions.actualToCartesian(Rotation2d.fromDegrees(angleDegrees)).getRadians();
+        double tipX = extension * Math.cos(cartesian);
+        double tipY = extension * Math.sin(cartesian);
+        if (tipY < ArmConstants.FLOOR_CLEARANCE - ArmConstants.PIVOT_HEIGHT) return false;
+
+        // Once the arm drops below the top of the bumpers it can't be over the bumpers or the frame
+        double bumperTop = ArmConstants.BUMPER_HEIGHT - ArmConstants.PIVOT_HEIGHT;
+        if (tipY >= bumperTop) return true;
+        double crossingX = tipX * bumperTop / tipY;
+        double frontEdge = ArmConstants.PIVOT_DISTANCE + ArmConstants.BUMPER_THICKNESS;
+        double rearEdge = -ArmConstants.PIVOT_REAR_DISTANCE - ArmConstants.BUMPER_THICKNESS;
+        return Math.max(crossingX, tipX) < rearEdge || Math.min(crossingX, tipX) > frontEdge;
+    }
+
+    private List<ArmState> plan(int startCell, int goalCell) {
+        int[] cameFrom = new int[blocked.length];
+        double[] cost = new double[blocked.length];
+        Arrays.fill(cameFrom, -1);
+        Arrays.fill(cost, Double.POSITIVE_INFINITY);
+        PriorityQueue<double[]> open = new PriorityQueue<>(Comparator.comparingDouble(node -> node[0]));
+
+        cost[startCell] = 0;
+        open.add(new double[]{heuristic(startCell, goalCell), startCell});
+        while (!open.isEmpty()) {
+            double[] node = open.poll();
+            int current = (int) node[1];
+            if (current == goalCell) break;
+            if (node[0] > cost[current] + heuristic(current, goalCell)) continue;
+
+            int i = current / extensionCells;
+            int j = current % extensionCells;
+            for (int[] offset : NEIGHBORS) {
+                int ni = i + offset[0];
+                int nj = j + offset[1];
+                if (ni < 0 || ni >= angleCells || nj < 0 || nj >= extensionCells) continue;
+                int next = cell(ni, nj);
+                // The start and goal are allowed to be blocked so that the arm can always get out of or into them
+                if (blocked[next] && next != goalCell) continue;
+                double nextCost = cost[current] + Math.max(
+                        Math.abs(offset[0]) * ANGLE_STEP / PIVOT_VELOCITY,
+                        Math.abs(offset[1]) * EXTENSION_STEP / TELESCOPE_VELOCITY
+                );
+                if (nextCost < cost[next]) {
+                    cost[next] = nextCost;
+                    cameFrom[next] = current;
+                    open.add(new double[]{nextCost + heuristic(next, goalCell), next});
+                }
+            }
+        }
+
+        if (startCell != goalCell && cameFrom[goalCell] == -1) {
+            DriverStation.reportWarning("No arm path found, moving directly", false);
+            return List.of();
+        }
+        LinkedList<Integer> cells = new LinkedList<>();
+        for (int current = goalCell; current != -1; current = cameFrom[current]) {
+            cells.addFirst(current);
+        }
+        return shortcut(cells);
+    }
+
+    /**
+     * Reduces a grid path to the fewest waypoints that can be moved between directly without hitting anything
+     */
+    private List<ArmState> shortcut(List<Integer> cells) {
+        List<ArmState> waypoints = new ArrayList<>();
+        int from = 0;
+        while (from < cells.size() - 1) {
+            int to = cells.size() - 1;
+            while (to > from + 1 && !isMoveClear(cellState(cells.get(from)), cellState(cells.get(to)))) {
+                to--;
+            }
+            if (to < cells.size() - 1) waypoints.add(cellState(cells.get(to)));
+            from = to;
+        }
+        return Collections.unmodifiableList(waypoints);
+    }
+
+    /**
+     * Checks a direct move by stepping through both motion profiles in time, since the joints don't finish together
+     */
+    private static boolean isMoveClear(ArmState from, ArmState to) {
+        double angleDistance = to.getRotation2d().getDegrees() - from.getRotation2d().getDegrees();
+        double extensionDistance = to.getExtension() - from.getExtension();
+        double time = getMoveTime(from, to);
+        double pivotAccel = getPivotAccel(from, to);
+        int steps = (int) Math.ceil(Math.max(Math.abs(angleDistance) / ANGLE_STEP, Math.abs(extensionDistance) / EXTENSION_STEP) * 2);
+        for (int step = 1; step < steps; step++) {
+            double t = time * step / steps;
+            double angle = from.getRotation2d().getDegrees() + Math.signum(angleDistance) * profilePosition(Math.abs(angleDistance), PIVOT_VELOCITY, pivotAccel, t);
+            double extension = from.getExtension() + Math.signum(extensionDistance) * profilePosition(Math.abs(extensionDistance), TELESCOPE_VELOCITY, TELESCOPE_ACCEL, t);
+            if (!isValid(angle, extension)) return false;
+        }
+        return true;
+    }
+
+    private static double profileTime(double distance, double velocity, double accel) {
+        if (distance <= velocity * velocity / accel) return 2 * Math.sqrt(distance / accel);
+        return distance / velocity + velocity / accel;
+    }
+
+    private static double profilePosition(double distance, double velocity, double accel, double time) {
+        double totalTime = profileTime(distance, velocity, accel);
+        if (time >= totalTime) return distance;
+        double peakVelocity = Math.min(velocity, Math.sqrt(distance * accel));
+        double accelTime = peakVelocity / accel;
+        if (time < accelTime) return 0.5 * accel * time * time;
+        double accelDistance = 0.5 * accel * accelTime * accelTime;
+        double decelStart = totalTime - accelTime;
+        if (time < decelStart) return accelDistance + peakVelocity * (time - accelTime);
+        double remaining = totalTime - time;
+        return distance - 0.5 * accel * remaining * remaining;
+    }
+
+    private double heuristic(int from, int to) {
+        return Math.max(
+                Math.abs(from / extensionCells - to / extensionCells) * ANGLE_STEP / PIVOT_VELOCITY,
+                Math.abs(from % extensionCells - to % extensionCells) * EXTENSION_STEP / TELESCOPE_VELOCITY
+        );
+    }
+
+    private int nearestCell(ArmState state) {
+        ArmState clamped = clampState(state);
+        int i = (int) Math.round((clamped.getRotation2d().getDegrees() - MIN_ANGLE) / ANGLE_STEP);
+        int j = (int) Math.round((clamped.getExtension() - MIN_EXTENSION) / EXTENSION_STEP);
+        return cell(Math.min(i, angleCells - 1), Math.min(j, extensionCells - 1));
+    }
+
+    private int cell(int angleIndex, int extensionIndex) {
+        return angleIndex * extensionCells + extensionIndex;
+    }
+
+    private ArmState cellState(int cell) {
+        return ArmState.fromRotationExtension(Rotation2d.fromDegrees(getAngle(cell / extensionCells)), getExtension(cell % extensionCells));
+    }
+
+    private static double getAngle(int angleIndex) {
+        return MIN_ANGLE + angleIndex * ANGLE_STEP;
+    }
+
+    private static double getExtension(int extensionIndex) {
+        return MIN_EXTENSION + extensionIndex * EXTENSION_STEP;
+    }
+
+    private static double clampExtension(double extension) {
+        return Math.max(MIN_EXTENSION, Math.min(MAX_EXTENSION, extension));
+    }
+
+    // Presets use an extension of 0 to mean fully retracted
+    private static ArmState clampState(ArmState state) {
+        double angle = Math.max(MIN_ANGLE, Math.min(MAX_ANGLE, state.getRotation2d().getDegrees()));
+        return ArmState.fromRotationExtension(Rotation2d.fromDegrees(angle), clampExtension(state.getExtension()));
+    }
+}
@@ -0,0 +1,59 @@
+package org.team1540.robot2023.utils;
+
+import com.pathplanner.lib.PathConstraints;
+import com.pathplanner.lib.PathPlanner;
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPoint;
+import org.team1540.lib.util.LatencyHistogram;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Generates PathPlanner paths on a background thread so the main loop doesn't stall while they're being made
+ */
+public class AsyncPathGenerator {
+    private static AsyncPathGenerator instance;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "PathGenerator");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final LatencyHistogram latency = new LatencyHistogram(5, 20);
+
+    public static AsyncPathGenerator getInstance() {
+        if (instance == null) {
+            instance = new AsyncPathGenerator();
+        }
+        return instance;
+    }
+
+    private AsyncPathGenerator() {
+    }
+
+    public CompletableFuture<PathPlannerTrajectory> generate(PathConstraints constraints, List<PathPoint> points) {
+        return CompletableFuture.supplyAsync(() -> {
+            long startTime = System.nanoTime();
+            PathPlannerTrajectory trajectory = PathPlanner.generatePath(constraints, points);
+            latency.record((System.nanoTime() - startTime) / 1e6);
+            return trajectory;
+        }, executor);
+    }
+
+    /**
+     * @return roughly how long the next path will take to generate, in seconds, so callers can plan from where the
+     * robot will be once it's done
+     */
+    public double getExpectedLatency() {
+        // Nothing's been generated yet, so guess from how long these took on the main thread
+        if (latency.getCount() == 0) return 0.05;
+        return latency.getPercentile(0.9) / 1000;
+    }
+
+    public void publishLatency() {
+        latency.publish("pathGenerator/latency");
+    }
+}
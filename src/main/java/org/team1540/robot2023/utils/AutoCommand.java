@@ -1,7 +1,6 @@
 package org.team1540.robot2023.utils;
 
 import com.pathplanner.lib.PathConstraints;
-import com.pathplanner.lib.PathPlanner;
 import com.pathplanner.lib.PathPlannerTrajectory;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.trajectory.Trajectory;
@@ -12,7 +11,6 @@ import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import org.team1540.robot2023.commands.drivetrain.Drivetrain;
 import org.team1540.robot2023.commands.drivetrain.PathPlannerDriveCommand;
 
-import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -26,17 +24,12 @@ public abstract class AutoCommand extends SequentialCommandGroup {
         return getPathPlannerDriveCommand(drivetrain, pathname, new PathConstraints(4, 2), false);
     }
     public Command getPathPlannerDriveCommand(Drivetrain drivetrain, String pathname, PathConstraints constraints, boolean shouldReset) {
-        this.isResetting = shouldReset;
-        this.name = pathname;
-        PathPlannerTrajectory trajectory = PathPlanner.loadPath(pathname, constraints);
-        initialPose = trajectory.getInitialHolonomicPose();
-        this.fullTrajectory = trajectory;
-        Command command = new ProxyCommand(() -> new PathPlannerDriveCommand(drivetrain, trajectory));
-        if (shouldReset) {
-            return new InstantCommand(() -> drivetrain.resetToPath(trajectory)).andThen(command);
-        } else {
-            return command;
-        }
+        return getPathPlannerDriveCommand(drivetrain, AutoPath.path(pathname, constraints, shouldReset));
+    }
+
+    public Command getPathPlannerDriveCommand(Drivetrain drivetrain, AutoPath path) {
+        List<Command> commands = getPathPlannerDriveCommandGroup(drivetrain, path);
+        return commands.get(0);
     }
 
     public List<Command> getPathPlannerDriveCommandGroup(Drivetrain drivetrain, String pathname) {
@@ -49,17 +42,20 @@ public abstract class AutoCommand extends SequentialCommandGroup {
 
 
     public List<Command> getPathPlannerDriveCommandGroup(Drivetrain drivetrain, String pathname, PathConstraints[] constraints, boolean shouldReset) {
-        this.isResetting = shouldReset;
-        this.name = pathname;
-        List<PathPlannerTrajectory> trajectories = PathPlanner.loadPathGroup(pathname, constraints[0], Arrays.copyOfRange(constraints, 1, constraints.length));
+        return getPathPlannerDriveCommandGroup(drivetrain, AutoPath.group(pathname, shouldReset, constraints));
+    }
+
+    public List<Command> getPathPlannerDriveCommandGroup(Drivetrain drivetrain, AutoPath path) {
+        this.isResetting = path.shouldReset;
+        this.name = path.name;
+        List<PathPlannerTrajectory> trajectories = path.load();
         LinkedList<Command> commands = new LinkedList<>();
-        initialPose = trajectories.get(0).getInitialHolonomicPose();
-        this.fullTrajectory = new Trajectory();
+        initialPose = path.getInitialPose();
+        this.fullTrajectory = path.getFullTrajectory();
         for (PathPlannerTrajectory trajectory : trajectories) {
-            this.fullTrajectory = this.fullTrajectory.concatenate(trajectory);
             commands.addLast(new ProxyCommand(() -> new PathPlannerDriveCommand(drivetrain, trajectory)));
         }
-        if (shouldReset) {
+        if (path.shouldReset) {
             commands.set(0,new InstantCommand(() -> drivetrain.resetToPath(trajectories.get(0))).andThen(commands.getFirst()));
         }
         return commands;
@@ -0,0 +1,74 @@
+package org.team1540.robot2023.utils;
+
+import com.pathplanner.lib.PathConstraints;
+import com.pathplanner.lib.PathPlannerTrajectory;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+import org.team1540.lib.util.PrecompiledTrajectories;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The PathPlanner path an auto drives, with the constraints it's generated with and whether the auto starts by
+ * resetting odometry to it. Autos declare these so the chooser can show the path and the robot can line up before the
+ * auto is built, and so {@link TrajectoryCompiler} knows what to precompile.
+ */
+public class AutoPath {
+    public final String name;
+    public final boolean isGroup;
+    public final boolean shouldReset;
+    private final PathConstraints[] constraints;
+
+    private AutoPath(String name, boolean isGroup, boolean shouldReset, PathConstraints... constraints) {
+        this.name = name;
+        this.isGroup = isGroup;
+        this.shouldReset = shouldReset;
+        this.constraints = constraints;
+    }
+
+    public static AutoPath path(String name, PathConstraints constraints, boolean shouldReset) {
+        return new AutoPath(name, false, shouldReset, constraints);
+    }
+
+    public static AutoPath group(String name, boolean shouldReset, PathConstraints... constraints) {
+        return new AutoPath(name, true, shouldReset, constraints);
+    }
+
+    public PathConstraints[] getConstraints() {
+        return constraints.clone();
+    }
+
+    /**
+     * @return the precompiled file this is stored in, relative to the deploy directory
+     */
+    public String getFileName() {
+        return PrecompiledTrajectories.getFileName(name, isGroup, constraints);
+    }
+
+    /**
+     * @return every trajectory in the path, one for a single path. These are shared, so don't modify them.
+     */
+    public List<PathPlannerTrajectory> load() {
+        if (!isGroup) return Collections.singletonList(TrajectoryRepository.loadPath(name, constraints[0]));
+        return TrajectoryRepository.loadPathGroup(name, constraints[0], Arrays.copyOfRange(constraints, 1, constraints.length));
+    }
+
+    public Pose2d getInitialPose() {
+        return load().get(0).getInitialHolonomicPose();
+    }
+
+    /**
+     * @return the whole path as one trajectory, for drawing it
+     */
+    public Trajectory getFullTrajectory() {
+        List<PathPlannerTrajectory> trajectories = load();
+        if (trajectories.size() == 1) return trajectories.get(0);
+        Trajectory full = new Trajectory();
+        for (PathPlannerTrajectory trajectory : trajectories) {
+            full = full.concatenate(trajectory);
+        }
+        return full;
+    }
+}
@@ -0,0 +1,111 @@
+package org.team1540.robot2023.utils;
+
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.util.datalog.DataLogRecord;
+import org.team1540.robot2023.LogManager;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Turns the integer command events {@link LogManager} logs back into names, prints every event in order, then how many
+ * times each command ran and how long it took. This runs on a laptop, not the robot:
+ * {@code ./gradlew decodeCommandLog --args="path/to/log.wpilog"}
+ */
+public class CommandLogDecoder {
+    private static final String[] EVENT_NAMES = {"Initializing", "Ending", "Interrupting"};
+
+    private static class CommandStats {
+        final String name;
+        int runs = 0;
+        int finished = 0;
+        int interrupted = 0;
+        double totalSeconds = 0;
+        double maxSeconds = 0;
+        // Commands with the same name share an id and can run at the same time, so match each end to the oldest start
+        final Deque<Double> startTimes = new ArrayDeque<>();
+
+        CommandStats(String name) {
+            this.name = name;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: ./gradlew decodeCommandLog --args=\"path/to/log.wpilog\"");
+            System.exit(1);
+        }
+        DataLogReader reader = new DataLogReader(args[0]);
+        if (!reader.isValid()) {
+            System.err.println(args[0] + " is not a valid log file");
+            System.exit(1);
+        }
+
+        Map<Integer, String> entryNames = new HashMap<>();
+        Map<Integer, CommandStats> commands = new HashMap<>();
+        List<CommandStats> order = new ArrayList<>();
+        for (DataLogRecord record : reader) {
+            if (record.isStart()) {
+                DataLogRecord.StartRecordData start = record.getStartData();
+                entryNames.put(start.entry, start.name);
+            } else if (!record.isControl()) {
+                String name = entryNames.get(record.getEntry());
+                if (LogManager.COMMAND_NAME_LOG_ENTRY.equals(name)) {
+                    String entry = record.getString();
+                    int separator = entry.indexOf(':');
+                    CommandStats stats = new CommandStats(entry.substring(separator + 1));
+                    commands.put(Integer.parseInt(entry.substring(0, separator)), stats);
+                    order.add(stats);
+                } else if (LogManager.COMMAND_EVENT_LOG_ENTRY.equals(name)) {
+                    long value = record.getInteger();
+                    int id = (int) (value / LogManager.COMMAND_EVENT_TYPES);
+                    int event = (int) (value % LogManager.COMMAND_EVENT_TYPES);
+                    double time = record.getTimestamp() / 1e6;
+                    CommandStats stats = commands.get(id);
+                    if (stats == null) {
+                        // The name should always come first, but don't lose the event if it didn't
+                        stats = new CommandStats("#" + id);
+                        commands.put(id, stats);
+                        order.add(stats);
+                    }
+                    System.out.printf("%10.3f  %-12s %s%n", time,
+                            event < EVENT_NAMES.length ? EVENT_NAMES[event] : "Event " + event, stats.name);
+                    record(stats, event, time);
+                }
+            }
+        }
+
+        System.out.println();
+        System.out.printf("%-40s %6s %8s %11s %9s %9s %9s%n",
+                "command", "runs", "finished", "interrupted", "total s", "mean s", "max s");
+        for (CommandStats stats : order) {
+            int ended = stats.finished + stats.interrupted;
+            System.out.printf("%-40s %6d %8d %11d %9.2f %9.3f %9.3f%n", stats.name, stats.runs, stats.finished,
+                    stats.interrupted, stats.totalSeconds, ended == 0 ? 0 : stats.totalSeconds / ended, stats.maxSeconds);
+        }
+    }
+
+    private static void record(CommandStats stats, int event, double time) {
+        if (event == LogManager.COMMAND_INITIALIZE) {
+            stats.runs++;
+            stats.startTimes.addLast(time);
+            return;
+        }
+        if (event == LogManager.COMMAND_FINISH) {
+            stats.finished++;
+        } else if (event == LogManager.COMMAND_INTERRUPT) {
+            stats.interrupted++;
+        }
+        Double startTime = stats.startTimes.pollFirst();
+        if (startTime != null) {
+            double duration = time - startTime;
+            stats.totalSeconds += duration;
+            stats.maxSeconds = Math.max(stats.maxSeconds, duration);
+        }
+    }
+}
@@ -9,6 +9,8 @@ public class GridScoreData {
     public double additionalBackoff = 0;
 
     public PolePosition polePosition = PolePosition.CENTER;
+    // Which row of nodes this scores on, for finding where to line up
+    public ScoringNodes.Level level = null;
     public GridScoreData(ArmState approach, ArmState score, ArmState retreat) {
         this.approach = approach;
         this.score = score;
@@ -44,6 +46,12 @@ public class GridScoreData {
         return data;
     }
 
+    public GridScoreData withLevel(ScoringNodes.Level level) {
+        GridScoreData data = copy();
+        data.level = level;
+        return data;
+    }
+
     public GridScoreData withPolePosition(PolePosition polePosition) {
         GridScoreData data = copy();
         data.polePosition = polePosition;
@@ -57,6 +65,7 @@ public class GridScoreData {
         data.retreat = this.retreat;
         data.additionalBackoff = this.additionalBackoff;
         data.polePosition = this.polePosition;
+        data.level = this.level;
         return data;
 
     }
@@ -6,14 +6,26 @@ import edu.wpi.first.math.geometry.Translation2d;
 import edu.wpi.first.networktables.NetworkTable;
 import edu.wpi.first.networktables.NetworkTableEntry;
 import edu.wpi.first.networktables.NetworkTableInstance;
-import edu.wpi.first.wpilibj.DriverStation;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import org.team1540.lib.util.InputLog;
+import org.team1540.lib.util.TelemetryBus;
+import org.team1540.lib.util.TelemetryBus.DoubleSignal;
+import org.team1540.lib.util.TelemetryBus.Priority;
+import org.team1540.lib.util.TelemetryBus.StringSignal;
 
 import java.util.Arrays;
 
 public class Limelight {
+    private static final DoubleSignal txSignal = TelemetryBus.getInstance().addDouble("LimelightX", Priority.NORMAL, 25);
+    private static final DoubleSignal visionTxSignal = TelemetryBus.getInstance().addDouble("vision/LimelightX", Priority.NORMAL, 25);
+    private static final DoubleSignal tySignal = TelemetryBus.getInstance().addDouble("vision/LimelightY", Priority.NORMAL, 25);
+    private static final DoubleSignal taSignal = TelemetryBus.getInstance().addDouble("vision/LimelightArea", Priority.NORMAL, 25);
+    private static final DoubleSignal tvSignal = TelemetryBus.getInstance().addDouble("vision/LimelightTargets", Priority.NORMAL, 25);
+    private static final StringSignal classIDSignal = TelemetryBus.getInstance().addString("vision/LimelightClassID", Priority.NORMAL, 25);
+
     private double tv, tx, ty, ta;
     private final NetworkTable table;
+    // Everything this reads comes from here instead of the table, so it can be logged and replayed
+    private final LimelightIO.Inputs inputs = new LimelightIO.Inputs();
     //private final AHRS navx; 
     public final String name;
     private double[] data;
@@ -30,13 +42,13 @@ public class Limelight {
     public Limelight(String tablename) {
         name = tablename;
         table = NetworkTableInstance.getDefault().getTable(name);
+        LimelightIO io = new LimelightIOHardware(table);
+        InputLog.getInstance().register("Limelight/" + name, inputs, io::updateInputs);
     }
 
     public void periodic() {
-        String key = DriverStation.getAlliance() == DriverStation.Alliance.Red ? "botpose_wpired" : "botpose_wpiblue";
-        double[] rawData = table.getEntry(key).getDoubleArray(new double[7]);
-        latency = rawData[6];
-        data = Arrays.copyOf(rawData, 6); 
+        latency = inputs.botpose[6];
+        data = Arrays.copyOf(inputs.botpose, 6);
         zeroFilter.add(data);
 
         Translation2d pose;
@@ -135,47 +147,45 @@ public class Limelight {
 
     //Horizontal Offset From Crosshair To Target (-27 degrees to 27 degrees)
     public double getTx(){
-         tx = table.getEntry("tx").getDouble(0.0);
-        SmartDashboard.putNumber("LimelightX", tx);
+        tx = inputs.tx;
+        txSignal.set(tx);
         return tx;
     }
     public NetworkTableEntry getTxEntry(){
         NetworkTableEntry txEntry = table.getEntry("tx");
-       SmartDashboard.putNumber("vision/LimelightX", tx);
+       visionTxSignal.set(tx);
        return txEntry;
    }
    
     //Vertical Offset From Crosshair To Target (-20.5 degrees to 20.5 degrees)
     public double getTy(){
-         ty = table.getEntry("ty").getDouble(0.0);
-        SmartDashboard.putNumber("vision/LimelightY", ty);
+        ty = inputs.ty;
+        tySignal.set(ty);
         return ty;
     }
 
     //Target Area (0% of image to 100% of image)
     public double getTa(){
-         ta = table.getEntry("ta").getDouble(0.0);
-        SmartDashboard.putNumber("vision/LimelightArea", ta);
+        ta = inputs.ta;
+        taSignal.set(ta);
         return ta;
     }
 
     //Whether the limelight has any valid targets (0 or 1)
     public double getTv() {
-        tv = table.getEntry("tv").getDouble(0.0);
-        SmartDashboard.putNumber("vision/LimelightTargets", tv);
+        tv = inputs.tv;
+        tvSignal.set(tv);
         return tv;
     }
 
     //	Class ID of primary neural detector result
     public String getTclass(){
-        String classID = table.getEntry("tclass").getString("nothing");
-        SmartDashboard.putString("vision/LimelightClassID", classID);
+        String classID = inputs.tclass;
+        classIDSignal.set(classID);
         return classID;
     }
     public Translation2d getTargetAngles() {
-        double x = table.getEntry("tx").getDouble(0.0);
-        double y = table.getEntry("ty").getDouble(0);
-        return new Translation2d(x, y);
+        return new Translation2d(inputs.tx, inputs.ty);
     }
 
     public boolean isTargetFound(){
@@ -0,0 +1,40 @@
+package org.team1540.robot2023.utils;
+
+import org.team1540.lib.util.InputLog;
+
+/**
+ * Everything read from one Limelight's NetworkTable
+ */
+public interface LimelightIO {
+    class Inputs implements InputLog.LoggableInputs {
+        // x, y, z, roll, pitch, yaw for our alliance, then latency in ms
+        public final double[] botpose = new double[7];
+        public double tx = 0;
+        public double ty = 0;
+        public double ta = 0;
+        public double tv = 0;
+        public String tclass = "nothing";
+
+        @Override
+        public void toLog(InputLog.Table table) {
+            table.put("botpose", botpose);
+            table.put("tx", tx);
+            table.put("ty", ty);
+            table.put("ta", ta);
+            table.put("tv", tv);
+            table.put("tclass", tclass);
+        }
+
+        @Override
+        public void fromLog(InputLog.Table table) {
+            table.get("botpose", botpose);
+            tx = table.get("tx", tx);
+            ty = table.get("ty", ty);
+            ta = table.get("ta", ta);
+            tv = table.get("tv", tv);
+            tclass = table.get("tclass", tclass);
+        }
+    }
+
+    void updateInputs(Inputs inputs);
+}
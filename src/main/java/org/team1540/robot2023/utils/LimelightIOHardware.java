@@ -0,0 +1,42 @@
+package org.team1540.robot2023.utils;
+
+import edu.wpi.first.networktables.NetworkTable;
+import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.wpilibj.DriverStation;
+
+import java.util.Arrays;
+
+public class LimelightIOHardware implements LimelightIO {
+    private static final double[] NO_POSE = new double[0];
+
+    private final NetworkTableEntry redBotposeEntry;
+    private final NetworkTableEntry blueBotposeEntry;
+    private final NetworkTableEntry txEntry;
+    private final NetworkTableEntry tyEntry;
+    private final NetworkTableEntry taEntry;
+    private final NetworkTableEntry tvEntry;
+    private final NetworkTableEntry tclassEntry;
+
+    public LimelightIOHardware(NetworkTable table) {
+        redBotposeEntry = table.getEntry("botpose_wpired");
+        blueBotposeEntry = table.getEntry("botpose_wpiblue");
+        txEntry = table.getEntry("tx");
+        tyEntry = table.getEntry("ty");
+        taEntry = table.getEntry("ta");
+        tvEntry = table.getEntry("tv");
+        tclassEntry = table.getEntry("tclass");
+    }
+
+    @Override
+    public void updateInputs(Inputs inputs) {
+        NetworkTableEntry botposeEntry = DriverStation.getAlliance() == DriverStation.Alliance.Red ? redBotposeEntry : blueBotposeEntry;
+        double[] botpose = botposeEntry.getDoubleArray(NO_POSE);
+        Arrays.fill(inputs.botpose, 0);
+        System.arraycopy(botpose, 0, inputs.botpose, 0, Math.min(botpose.length, inputs.botpose.length));
+        inputs.tx = txEntry.getDouble(0.0);
+        inputs.ty = tyEntry.getDouble(0.0);
+        inputs.ta = taEntry.getDouble(0.0);
+        inputs.tv = tvEntry.getDouble(0.0);
+        inputs.tclass = tclassEntry.getString("nothing");
+    }
+}
@@ -0,0 +1,60 @@
+package org.team1540.robot2023.utils;
+
+import com.pathplanner.lib.PathConstraints;
+import com.pathplanner.lib.PathPlanner;
+import com.pathplanner.lib.PathPoint;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import org.team1540.lib.util.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Times PathPlanner.generatePath for paths with different numbers of points, like the ones AutoDrive makes. Run with
+ * ./gradlew benchmarkPathGeneration. Desktop numbers are a lot faster than the roboRIO, so compare them with the
+ * pathGenerator/latency histogram on the robot rather than reading them as absolute.
+ */
+public class PathGenerationBenchmark {
+    private static final int WARMUP_RUNS = 200;
+    private static final int RUNS = 500;
+    private static final int MAX_POINTS = 8;
+
+    public static void main(String[] args) {
+        Random random = new Random(1540);
+        PathConstraints constraints = new PathConstraints(5, 3);
+
+        for (int i = 0; i < WARMUP_RUNS; i++) {
+            PathPlanner.generatePath(constraints, randomPoints(random, 3));
+        }
+
+        System.out.println("points   mean ms    p50 ms    p95 ms    max ms");
+        for (int pointCount = 2; pointCount <= MAX_POINTS; pointCount++) {
+            LatencyHistogram histogram = new LatencyHistogram(0.1, 1000);
+            for (int i = 0; i < RUNS; i++) {
+                List<PathPoint> points = randomPoints(random, pointCount);
+                long startTime = System.nanoTime();
+                PathPlanner.generatePath(constraints, points);
+                histogram.record((System.nanoTime() - startTime) / 1e6);
+            }
+            System.out.printf("%6d %9.3f %9.3f %9.3f %9.3f%n", pointCount, histogram.getMean(),
+                    histogram.getPercentile(0.5), histogram.getPercentile(0.95), histogram.getMax());
+        }
+    }
+
+    /**
+     * @return points spread across the community zone, roughly where grid and substation alignment paths go
+     */
+    private static List<PathPoint> randomPoints(Random random, int count) {
+        List<PathPoint> points = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            points.add(new PathPoint(
+                    new Translation2d(1.5 + random.nextDouble() * 4, 0.5 + random.nextDouble() * 5),
+                    Rotation2d.fromDegrees(random.nextDouble() * 360),
+                    Rotation2d.fromDegrees(180)
+            ));
+        }
+        return points;
+    }
+}
@@ -0,0 +1,68 @@
+package org.team1540.robot2023.utils;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Properties;
+
+/**
+ * The pivot's gravity feedforward, as fit by {@link ArmCharacterizationFitter} from a characterization log. The fitter
+ * writes these to {@value #FILE_NAME} in the deploy directory and the arm reads them back at boot, so the gains on the
+ * robot are always ones that were actually measured. Until that file exists the feedforward is off.
+ * <p>
+ * The feedforward is cos(cartesian angle) * (kG + kGPerInch * (extension - ARM_BASE_LENGTH)), in percent output.
+ */
+public class PivotGravityGains {
+    public static final String FILE_NAME = "pivotGravity.properties";
+    public static final PivotGravityGains NONE = new PivotGravityGains(0, 0, "none");
+
+    // Percent output needed to hold the arm horizontal at base length, and how much that grows per inch extended
+    public final double kG;
+    public final double kGPerInch;
+    // The log these were fit from
+    public final String source;
+
+    public PivotGravityGains(double kG, double kGPerInch, String source) {
+        this.kG = kG;
+        this.kGPerInch = kGPerInch;
+        this.source = source;
+    }
+
+    public boolean isCharacterized() {
+        return this != NONE;
+    }
+
+    /**
+     * @return the gains in the given deploy directory, or {@link #NONE} if the arm hasn't been characterized yet
+     */
+    public static PivotGravityGains load(File deployDirectory) throws IOException {
+        File file = new File(deployDirectory, FILE_NAME);
+        if (!file.exists()) return NONE;
+        Properties properties = new Properties();
+        try (Reader reader = new FileReader(file)) {
+            properties.load(reader);
+        }
+        try {
+            return new PivotGravityGains(
+                    Double.parseDouble(properties.getProperty("kG")),
+                    Double.parseDouble(properties.getProperty("kGPerInch")),
+                    properties.getProperty("source", "unknown")
+            );
+        } catch (NullPointerException | NumberFormatException e) {
+            throw new IOException(file + " is missing kG or kGPerInch", e);
+        }
+    }
+
+    public void write(File deployDirectory) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("kG", Double.toString(kG));
+        properties.setProperty("kGPerInch", Double.toString(kGPerInch));
+        properties.setProperty("source", source);
+        try (Writer writer = new FileWriter(new File(deployDirectory, FILE_NAME))) {
+            properties.store(writer, "Written by ArmCharacterizationFitter, don't edit by hand");
+        }
+    }
+}
@@ -1,12 +1,20 @@
 package org.team1540.robot2023.utils;
 
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import org.team1540.lib.util.TelemetryBus;
+import org.team1540.lib.util.TelemetryBus.BooleanArraySignal;
+import org.team1540.lib.util.TelemetryBus.DoubleArraySignal;
+import org.team1540.lib.util.TelemetryBus.DoubleSignal;
+import org.team1540.lib.util.TelemetryBus.Priority;
 
 import java.util.Arrays;
 import java.util.LinkedList;
 
 public class PoseZeroFilter {
+    private static final DoubleArraySignal lastItemSignal = TelemetryBus.getInstance().addDoubleArray("vision/PoseZeroFilter/lastItem", 6, Priority.LOW, 10);
+    private static final DoubleSignal nonZeroSignal = TelemetryBus.getInstance().addDouble("vision/PoseZeroFilter/nonZero", Priority.LOW, 10);
+
     private final LinkedList<Boolean> items = new LinkedList<>();
+    private final BooleanArraySignal itemsSignal;
     private final int count;
     private final int threshold;
 
@@ -20,6 +28,7 @@ public class PoseZeroFilter {
     public PoseZeroFilter(int count, int threshold) {
         this.count = count;
         this.threshold = threshold;
+        itemsSignal = TelemetryBus.getInstance().addBooleanArray("vision/PoseZeroFilter/items", count, Priority.LOW, 10);
 
     }
 
@@ -34,9 +43,12 @@ public class PoseZeroFilter {
         if (items.size() > count) {
             nonZero -= items.removeFirst() ? 1 : 0;
         }
-        SmartDashboard.putNumberArray("vision/PoseZeroFilter/lastItem", item);
-        SmartDashboard.putNumber("vision/PoseZeroFilter/nonZero", nonZero);
-        SmartDashboard.putBooleanArray("vision/PoseZeroFilter/items", items.toArray(new Boolean[]{}));
+        lastItemSignal.setAll(item);
+        nonZeroSignal.set(nonZero);
+        int i = 0;
+        for (boolean nonZeroItem : items) {
+            itemsSignal.set(i++, nonZeroItem);
+        }
     }
 
     public boolean isNonZero() {
@@ -0,0 +1,143 @@
+package org.team1540.robot2023.utils;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.wpilibj.DriverStation;
+import org.team1540.robot2023.Constants;
+import org.team1540.robot2023.commands.vision.TurnToGamePiece.GamePiece;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Where the robot lines up to score on each of the 27 nodes in an alliance's grids, worked out once per alliance from
+ * {@link AprilTagPoses} and the GridScoreData presets. Only the alliance's own grids are in here, since those are the
+ * only ones the robot can score on.
+ */
+public class ScoringNodes {
+    public static final int[] RED_GRID_TAGS = {1, 2, 3};
+    public static final int[] BLUE_GRID_TAGS = {6, 7, 8};
+
+    public enum Level {
+        HIGH, MID, HYBRID
+    }
+
+    public static class Node {
+        public final int tag;
+        public final PolePosition polePosition;
+        public final Level level;
+        /**
+         * The preset to score with, with the pole position filled in
+         */
+        public final GridScoreData data;
+        public final Pose2d pose;
+
+        private Node(int tag, PolePosition polePosition, Level level, GridScoreData data, Pose2d pose) {
+            this.tag = tag;
+            this.polePosition = polePosition;
+            this.level = level;
+            this.data = data;
+            this.pose = pose;
+        }
+
+        public boolean accepts(GamePiece piece) {
+            return level == Level.HYBRID || (piece == GamePiece.CUBE) == (polePosition == PolePosition.CENTER);
+        }
+    }
+
+    private static final AllianceNodes blueNodes = new AllianceNodes(BLUE_GRID_TAGS, DriverStation.Alliance.Blue);
+    private static final AllianceNodes redNodes = new AllianceNodes(RED_GRID_TAGS, DriverStation.Alliance.Red);
+
+    /**
+     * @return the closest node on the level that the piece can go on
+     */
+    public static Node getClosestNode(Translation2d position, DriverStation.Alliance alliance, Level level, GamePiece piece) {
+        List<Node> nodes = get(alliance).byPiece[level.ordinal()][piece.ordinal()];
+        return nodes.get(closestIndex(get(alliance).nodeY[level.ordinal()][piece.ordinal()], position.getY()));
+    }
+
+    /**
+     * @return the closest node a grid button's preset can score on. Cones go on the side poles and cubes in the
+     * middle, and the search leans towards the preset's pole position so the left and right cone buttons each pick
+     * the pole on their side.
+     */
+    public static Node getClosestNode(Translation2d position, DriverStation.Alliance alliance, GridScoreData data) {
+        GamePiece piece = data.polePosition == PolePosition.CENTER ? GamePiece.CUBE : GamePiece.CONE;
+        return getClosestNode(position.plus(new Translation2d(0, data.polePosition.offset)), alliance, data.level, piece);
+    }
+
+    private static AllianceNodes get(DriverStation.Alliance alliance) {
+        return alliance == DriverStation.Alliance.Red ? redNodes : blueNodes;
+    }
+
+    private static Pose2d getPose(Translation2d tag, PolePosition polePosition, double additionalBackoff) {
+        return new Pose2d(
+                tag.plus(new Translation2d(Constants.Auto.gridBackoffOffsetMeters + additionalBackoff, polePosition.offset)),
+                Rotation2d.fromDegrees(180)
+        );
+    }
+
+    /**
+     * @return the index of the closest value in a sorted array
+     */
+    private static int closestIndex(double[] sorted, double value) {
+        int index = Arrays.binarySearch(sorted, value);
+        if (index >= 0) return index;
+        index = -index - 1;
+        if (index == sorted.length || (index > 0 && value - sorted[index - 1] < sorted[index] - value)) index--;
+        return index;
+    }
+
+    /**
+     * The nodes on a level all have the same x, so everything here is sorted by y and found
+     * with a binary search.
+     */
+    private static class AllianceNodes {
+        final List<Node> nodes;
+        @SuppressWarnings("unchecked")
+        final List<Node>[][] byPiece = new List[Level.values().length][GamePiece.values().length];
+        final double[][][] nodeY = new double[Level.values().length][GamePiece.values().length][];
+
+        AllianceNodes(int[] gridTags, DriverStation.Alliance alliance) {
+            List<Node> allNodes = new ArrayList<>();
+            for (int id : gridTags) {
+                Translation2d tag = AprilTagPoses.getPose(id, alliance).getTranslation();
+                for (PolePosition polePosition : PolePosition.values()) {
+                    for (Level level : Level.values()) {
+                        GridScoreData data = getPreset(level, polePosition).withPolePosition(polePosition);
+                        allNodes.add(new Node(id, polePosition, level, data, getPose(tag, polePosition, data.additionalBackoff)));
+                    }
+                }
+            }
+            allNodes.sort(Comparator.comparingDouble(node -> node.pose.getY()));
+            nodes = Collections.unmodifiableList(allNodes);
+
+            for (Level level : Level.values()) {
+                for (GamePiece piece : GamePiece.values()) {
+                    List<Node> accepted = new ArrayList<>();
+                    for (Node node : nodes) {
+                        if (node.level == level && node.accepts(piece)) accepted.add(node);
+                    }
+                    byPiece[level.ordinal()][piece.ordinal()] = Collections.unmodifiableList(accepted);
+                    nodeY[level.ordinal()][piece.ordinal()] = accepted.stream().mapToDouble(node -> node.pose.getY()).toArray();
+                }
+            }
+        }
+
+        private static GridScoreData getPreset(Level level, PolePosition polePosition) {
+            boolean cube = polePosition == PolePosition.CENTER;
+            switch (level) {
+                case HIGH:
+                    return cube ? Constants.Auto.highCube : Constants.Auto.highCone;
+                case MID:
+                    return cube ? Constants.Auto.midCube : Constants.Auto.midCone;
+                default:
+                    return cube ? Constants.Auto.middleHybridNode : Constants.Auto.hybridNode;
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.team1540.robot2023.utils;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.util.Units;
+import org.team1540.lib.math.Conversions;
+import org.team1540.robot2023.Constants.ArmConstants;
+import org.team1540.robot2023.Constants.Swerve;
+import org.team1540.robot2023.Constants.TippingConstants;
+
+/**
+ * Works out how hard the drivetrain can accelerate before the robot starts to tip, based on where the arm's weight
+ * is. The robot tips about a line of wheels once the acceleration is more than g * (horizontal distance from the CoG
+ * to those wheels) / (CoG height). This assumes the front of the arm (negative angles) points towards +x on the robot.
+ */
+public class TippingModel {
+    private static final double GRAVITY = 9.81;
+    private static final double TOTAL_WEIGHT =
+            TippingConstants.CHASSIS_WEIGHT + TippingConstants.ARM_FIXED_WEIGHT + TippingConstants.ARM_TELESCOPE_WEIGHT;
+
+    // Positions relative to the pivot in inches, with the wheelbase centered in the frame perimeter
+    private static final double FRAME_CENTER = (ArmConstants.PIVOT_DISTANCE - ArmConstants.PIVOT_REAR_DISTANCE) / 2;
+    private static final double FRONT_WHEELS = FRAME_CENTER + Units.metersToInches(Swerve.wheelBase) / 2;
+    private static final double REAR_WHEELS = FRAME_CENTER - Units.metersToInches(Swerve.wheelBase) / 2;
+    private static final double SIDE_WHEELS = Units.metersToInches(Swerve.trackWidth) / 2;
+
+    public static class AccelerationLimits {
+        public final double forward;
+        public final double backward;
+        public final double sideways;
+
+        private AccelerationLimits(double forward, double backward, double sideways) {
+            this.forward = forward;
+            this.backward = backward;
+            this.sideways = sideways;
+        }
+    }
+
+    /**
+     * @return the center of gravity of the whole robot, as inches forward of the pivot and inches above the floor
+     */
+    public static Translation2d getCenterOfGravity(ArmState armState) {
+        double angle = Conversions.actualToCartesian(armState.getRotation2d()).getRadians();
+        // Presets use 0 to mean fully retracted
+        double extension = Math.max(armState.getExtension(), ArmConstants.ARM_BASE_LENGTH);
+        double telescopeCog = extension - TippingConstants.ARM_TELESCOPE_COG_FROM_END;
+
+        double x = TippingConstants.CHASSIS_WEIGHT * FRAME_CENTER
+                + TippingConstants.ARM_FIXED_WEIGHT * TippingConstants.ARM_FIXED_COG * Math.cos(angle)
+                + TippingConstants.ARM_TELESCOPE_WEIGHT * telescopeCog * Math.cos(angle);
+        double y = TippingConstants.CHASSIS_WEIGHT * TippingConstants.CHASSIS_COG_HEIGHT
+                + TippingConstants.ARM_FIXED_WEIGHT * (ArmConstants.PIVOT_HEIGHT + TippingConstants.ARM_FIXED_COG * Math.sin(angle))
+                + TippingConstants.ARM_TELESCOPE_WEIGHT * (ArmConstants.PIVOT_HEIGHT + telescopeCog * Math.sin(angle));
+        return new Translation2d(x / TOTAL_WEIGHT, y / TOTAL_WEIGHT);
+    }
+
+    /**
+     * @return the fastest the robot can safely accelerate in each direction, in meters per second squared. Speeding
+     * up forwards and slowing down while driving backwards both count as forwards.
+     */
+    public static AccelerationLimits getAccelerationLimits(ArmState armState) {
+        Translation2d cog = getCenterOfGravity(armState);
+        return new AccelerationLimits(
+                // Accelerating forwards tips the robot back over the rear wheels
+                getLimit(cog.getX() - REAR_WHEELS, cog.getY()),
+                getLimit(FRONT_WHEELS - cog.getX(), cog.getY()),
+                getLimit(SIDE_WHEELS, cog.getY())
+        );
+    }
+
+    private static double getLimit(double distanceToWheels, double height) {
+        double tippingAccel = GRAVITY * distanceToWheels / height;
+        return MathUtil.clamp(tippingAccel * TippingConstants.SAFETY_FACTOR, TippingConstants.MIN_ACCEL, TippingConstants.MAX_ACCEL);
+    }
+}
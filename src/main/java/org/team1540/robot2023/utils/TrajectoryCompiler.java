@@ -0,0 +1,95 @@
+package org.team1540.robot2023.utils;
+
+import com.pathplanner.lib.PathConstraints;
+import com.pathplanner.lib.PathPlanner;
+import com.pathplanner.lib.PathPlannerTrajectory;
+import edu.wpi.first.wpilibj2.command.Command;
+import org.team1540.lib.util.PrecompiledTrajectories;
+import org.team1540.robot2023.AutoRegistry;
+import org.team1540.robot2023.RobotContainer;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Generates every path the registered autos use ahead of time so the roboRIO doesn't have to at boot. The list comes
+ * from {@link RobotContainer#registerAutos}, so it can't drift from the chooser. Run it with ./gradlew
+ * compileTrajectories after changing a path or an auto and commit the output. With --check it only makes sure the
+ * committed files are all there and current, which the build does as part of ./gradlew check.
+ */
+public class TrajectoryCompiler {
+    // Run from the project directory by Gradle
+    private static final File DEPLOY_DIRECTORY = new File("src/main/deploy");
+
+    private static class Collector implements AutoRegistry {
+        // Keyed by file name, since several autos can share a path
+        final Map<String, AutoPath> paths = new LinkedHashMap<>();
+
+        @Override
+        public void addAuto(String name, AutoPath path, Supplier<? extends Command> factory) {
+            if (path != null) paths.putIfAbsent(path.getFileName(), path);
+        }
+
+        @Override
+        public void addDefaultAuto(String name, Supplier<? extends Command> factory) {}
+    }
+
+    public static void main(String[] args) throws IOException {
+        Collector collector = new Collector();
+        RobotContainer.registerAutos(collector, null);
+        Collection<AutoPath> paths = collector.paths.values();
+
+        if (args.length > 0 && args[0].equals("--check")) {
+            check(paths);
+        } else {
+            compile(paths);
+        }
+    }
+
+    private static void check(Collection<AutoPath> paths) throws IOException {
+        int stale = 0;
+        for (AutoPath path : paths) {
+            if (!PrecompiledTrajectories.isUpToDate(DEPLOY_DIRECTORY, path.getFileName(), path.name)) {
+                System.err.println(path.getFileName() + " is missing or out of date");
+                stale++;
+            }
+        }
+        if (stale > 0) {
+            throw new IllegalStateException(stale + " precompiled trajectories need regenerating, run ./gradlew compileTrajectories");
+        }
+        System.out.println("All " + paths.size() + " precompiled trajectories are up to date");
+    }
+
+    private static void compile(Collection<AutoPath> paths) throws IOException {
+        File outputDirectory = new File(DEPLOY_DIRECTORY, PrecompiledTrajectories.DIRECTORY);
+        File[] oldFiles = outputDirectory.listFiles();
+        if (oldFiles != null) {
+            for (File file : oldFiles) {
+                if (!file.delete()) throw new IOException("Couldn't delete " + file);
+            }
+        }
+
+        for (AutoPath path : paths) {
+            File file = new File(DEPLOY_DIRECTORY, path.getFileName());
+            PrecompiledTrajectories.write(
+                    file.toPath(),
+                    PrecompiledTrajectories.getPathChecksum(DEPLOY_DIRECTORY, path.name),
+                    generate(path)
+            );
+            System.out.println("Wrote " + file.getName() + " (" + file.length() + " bytes)");
+        }
+    }
+
+    private static List<PathPlannerTrajectory> generate(AutoPath path) {
+        if (!path.isGroup) return Collections.singletonList(PathPlanner.loadPath(path.name, path.getConstraints()[0]));
+        PathConstraints[] constraints = path.getConstraints();
+        return PathPlanner.loadPathGroup(path.name, constraints[0], Arrays.copyOfRange(constraints, 1, constraints.length));
+    }
+}
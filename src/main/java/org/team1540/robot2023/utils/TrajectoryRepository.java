@@ -0,0 +1,66 @@
+package org.team1540.robot2023.utils;
+
+import com.pathplanner.lib.PathConstraints;
+import com.pathplanner.lib.PathPlannerTrajectory;
+import edu.wpi.first.wpilibj.DriverStation;
+import org.team1540.lib.util.PrecompiledTrajectories;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads each path once per set of constraints and mirrors each loaded trajectory for the red alliance once, so autos
+ * that share paths (or get rebuilt after being reselected) share the same trajectory objects. Nothing should modify the
+ * trajectories this hands out.
+ */
+public class TrajectoryRepository {
+    private static final Map<String, PathPlannerTrajectory> paths = new HashMap<>();
+    private static final Map<String, List<PathPlannerTrajectory>> pathGroups = new HashMap<>();
+    // Only trajectories loaded here get their mirror cached, since these live for the whole match anyway and generated
+    // ones would pile up forever
+    private static final Map<PathPlannerTrajectory, PathPlannerTrajectory> redTrajectories = new IdentityHashMap<>();
+
+    public static synchronized PathPlannerTrajectory loadPath(String name, PathConstraints constraints) {
+        return paths.computeIfAbsent(
+                PrecompiledTrajectories.getFileName(name, false, constraints),
+                key -> addMirrorable(PrecompiledTrajectories.loadPath(name, constraints))
+        );
+    }
+
+    public static synchronized List<PathPlannerTrajectory> loadPathGroup(String name, PathConstraints constraints, PathConstraints... otherConstraints) {
+        PathConstraints[] allConstraints = new PathConstraints[otherConstraints.length + 1];
+        allConstraints[0] = constraints;
+        System.arraycopy(otherConstraints, 0, allConstraints, 1, otherConstraints.length);
+        return pathGroups.computeIfAbsent(
+                PrecompiledTrajectories.getFileName(name, true, allConstraints),
+                key -> {
+                    List<PathPlannerTrajectory> trajectories = PrecompiledTrajectories.loadPathGroup(name, constraints, otherConstraints);
+                    trajectories.forEach(TrajectoryRepository::addMirrorable);
+                    return Collections.unmodifiableList(trajectories);
+                }
+        );
+    }
+
+    private static PathPlannerTrajectory addMirrorable(PathPlannerTrajectory trajectory) {
+        redTrajectories.put(trajectory, null);
+        return trajectory;
+    }
+
+    /**
+     * @return the trajectory itself on blue, or a mirrored copy of it on red. Trajectories loaded here are only mirrored
+     * the first time, anything else (like paths generated on the fly) is mirrored every time.
+     */
+    public static synchronized PathPlannerTrajectory forAlliance(PathPlannerTrajectory trajectory, DriverStation.Alliance alliance) {
+        if (alliance != DriverStation.Alliance.Red) return trajectory;
+        if (!redTrajectories.containsKey(trajectory)) {
+            return PathPlannerTrajectory.transformTrajectoryForAlliance(trajectory, alliance);
+        }
+        return redTrajectories.computeIfAbsent(
+                trajectory,
+                blue -> PathPlannerTrajectory.transformTrajectoryForAlliance(blue, alliance)
+        );
+    }
+}
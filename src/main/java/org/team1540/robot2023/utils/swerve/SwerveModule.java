@@ -10,6 +10,7 @@ import org.team1540.lib.math.Conversions;
 import org.team1540.lib.util.CTREModuleState;
 import org.team1540.lib.util.SwerveModuleConstants;
 import org.team1540.robot2023.Constants;
+import org.team1540.robot2023.commands.drivetrain.DrivetrainIO;
 
 import com.ctre.phoenix.motorcontrol.ControlMode;
 import com.ctre.phoenix.motorcontrol.DemandType;
@@ -27,12 +28,15 @@ public class SwerveModule {
     private final TalonFX mAngleMotor;
     private final TalonFX mDriveMotor;
     private final CANCoder angleEncoder;
+    // Sensor readings come from here instead of the hardware, so they can be logged and replayed
+    private final DrivetrainIO.Inputs inputs;
 
     SimpleMotorFeedforward feedforward = new SimpleMotorFeedforward(Constants.Swerve.driveKS, Constants.Swerve.driveKV, Constants.Swerve.driveKA);
 
-    public SwerveModule(int moduleNumber, SwerveModuleConstants moduleConstants){
+    public SwerveModule(int moduleNumber, SwerveModuleConstants moduleConstants, DrivetrainIO.Inputs inputs){
         this.moduleNumber = moduleNumber;
         this.angleOffset = moduleConstants.angleOffset;
+        this.inputs = inputs;
 
         /* Angle Encoder Config */
         angleEncoder = new CANCoder(moduleConstants.cancoderID, canbus);
@@ -46,7 +50,8 @@ public class SwerveModule {
         mDriveMotor = new TalonFX(moduleConstants.driveMotorID, canbus);
         configDriveMotor();
 
-        lastAngle = getState().angle;
+        // The inputs haven't been read yet, so this goes straight to the motor
+        lastAngle = Rotation2d.fromDegrees(readAngleDegrees());
     }
 
     public void setDesiredState(SwerveModuleState desiredState, boolean isOpenLoop, boolean isParkMode){
@@ -81,15 +86,33 @@ public class SwerveModule {
 
 
     private Rotation2d getAngle(){
-        return Rotation2d.fromDegrees(Conversions.falconToDegrees(mAngleMotor.getSelectedSensorPosition(), Constants.Swerve.angleGearRatio));
+        return Rotation2d.fromDegrees(inputs.angleDegrees[moduleNumber]);
     }
 
     public Rotation2d getCanCoder(){
-        return Rotation2d.fromDegrees(angleEncoder.getAbsolutePosition());
+        return Rotation2d.fromDegrees(inputs.canCoderDegrees[moduleNumber]);
+    }
+
+    private double readAngleDegrees() {
+        return Conversions.falconToDegrees(mAngleMotor.getSelectedSensorPosition(), Constants.Swerve.angleGearRatio);
+    }
+
+    /**
+     * Reads this module's sensors into its slot in the drivetrain inputs
+     */
+    public void readSensors(DrivetrainIO.Inputs inputs) {
+        inputs.drivePositionMeters[moduleNumber] = Conversions.falconToMeters(mDriveMotor.getSelectedSensorPosition(), Constants.Swerve.wheelCircumference, Constants.Swerve.driveGearRatio);
+        inputs.driveVelocityMetersPerSecond[moduleNumber] = Conversions.falconToMPS(mDriveMotor.getSelectedSensorVelocity(), Constants.Swerve.wheelCircumference, Constants.Swerve.driveGearRatio);
+        inputs.angleDegrees[moduleNumber] = readAngleDegrees();
+        inputs.canCoderDegrees[moduleNumber] = angleEncoder.getAbsolutePosition();
     }
 
     public void resetToAbsolute(){
-        double absolutePosition = Conversions.degreesToFalcon(getCanCoder().getDegrees() - angleOffset.getDegrees(), Constants.Swerve.angleGearRatio);
+        resetToAbsolute(getCanCoder());
+    }
+
+    private void resetToAbsolute(Rotation2d canCoder){
+        double absolutePosition = Conversions.degreesToFalcon(canCoder.getDegrees() - angleOffset.getDegrees(), Constants.Swerve.angleGearRatio);
         mAngleMotor.setSelectedSensorPosition(absolutePosition);
     }
 
@@ -103,7 +126,8 @@ public class SwerveModule {
         mAngleMotor.configAllSettings(Robot.ctreConfigs.swerveAngleFXConfig);
         mAngleMotor.setInverted(Constants.Swerve.angleMotorInvert);
         mAngleMotor.setNeutralMode(Constants.Swerve.angleNeutralMode);
-        resetToAbsolute();
+        // The inputs haven't been read yet, so this goes straight to the CANCoder
+        resetToAbsolute(Rotation2d.fromDegrees(angleEncoder.getAbsolutePosition()));
     }
 
     private void configDriveMotor(){
@@ -115,16 +139,10 @@ public class SwerveModule {
     }
 
     public SwerveModuleState getState(){
-        return new SwerveModuleState(
-                Conversions.falconToMPS(mDriveMotor.getSelectedSensorVelocity(), Constants.Swerve.wheelCircumference, Constants.Swerve.driveGearRatio),
-                getAngle()
-        );
+        return new SwerveModuleState(inputs.driveVelocityMetersPerSecond[moduleNumber], getAngle());
     }
 
     public SwerveModulePosition getPosition(){
-        return new SwerveModulePosition(
-                Conversions.falconToMeters(mDriveMotor.getSelectedSensorPosition(), Constants.Swerve.wheelCircumference, Constants.Swerve.driveGearRatio),
-                getAngle()
-        );
+        return new SwerveModulePosition(inputs.drivePositionMeters[moduleNumber], getAngle());
     }
 }
\ No newline at end of file
@@ -0,0 +1,99 @@
+package org.team1540.robot2023;
+
+import edu.wpi.first.hal.AllianceStationID;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.networktables.NetworkTableEntry;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.team1540.lib.util.AllocationBudget;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Boots the whole robot in sim and runs teleop and then every auto in the chooser for a few hundred loops each,
+ * failing if any allocation budget was over on average. Sim time is paused and stepped one loop at a time, the same
+ * way a log replay runs, so the results don't depend on how fast the computer is.
+ */
+public class AllocationBudgetTest {
+    private static final int CYCLES = 250;
+    // Long enough for the auto chooser to settle and build the selected auto
+    private static final int DISABLED_CYCLES = 50;
+    private static final String CHOOSER = "autoChooser";
+
+    private static Robot robot;
+    private static Thread robotThread;
+
+    @BeforeClass
+    public static void startRobot() {
+        assertTrue(HAL.initialize(500, 0));
+        SimHooks.pauseTiming();
+        DriverStationSim.setDsAttached(true);
+        DriverStationSim.setAllianceStationId(AllianceStationID.Blue2);
+        DriverStationSim.setEnabled(false);
+        DriverStationSim.notifyNewData();
+
+        robot = new Robot();
+        robotThread = new Thread(robot::startCompetition, "Robot");
+        robotThread.setDaemon(true);
+        // Never checks on its own, each test checks once its mode has run
+        AllocationBudget.getInstance().enable(Integer.MAX_VALUE, robotThread);
+        robotThread.start();
+        SimHooks.waitForProgramStart();
+    }
+
+    @AfterClass
+    public static void stopRobot() throws InterruptedException {
+        robot.endCompetition();
+        SimHooks.resumeTiming();
+        robotThread.join(1000);
+        robot.close();
+    }
+
+    @Test
+    public void teleopStaysInBudget() {
+        step(false, false, DISABLED_CYCLES);
+        AllocationBudget.getInstance().check();
+        step(true, false, CYCLES);
+        List<String> violations = AllocationBudget.getInstance().check();
+        assertTrue(String.join("\n", violations), violations.isEmpty());
+    }
+
+    @Test
+    public void autosStayInBudget() {
+        // The chooser's options are published by the robot loop, so they're there once it has run
+        step(false, false, 1);
+        NetworkTableEntry options = NetworkTableInstance.getDefault().getTable("SmartDashboard").getSubTable(CHOOSER).getEntry("options");
+        NetworkTableEntry selected = NetworkTableInstance.getDefault().getTable("SmartDashboard").getSubTable(CHOOSER).getEntry("selected");
+        String[] autos = options.getStringArray(new String[0]);
+        assertTrue("No autos in the chooser", autos.length > 0);
+
+        List<String> violations = new ArrayList<>();
+        for (String auto : autos) {
+            selected.setString(auto);
+            step(false, false, DISABLED_CYCLES);
+            AllocationBudget.getInstance().check();
+            step(true, true, CYCLES);
+            for (String violation : AllocationBudget.getInstance().check()) {
+                violations.add(auto + ": " + violation);
+            }
+        }
+        assertTrue(String.join("\n", violations), violations.isEmpty());
+    }
+
+    private static void step(boolean enabled, boolean autonomous, int cycles) {
+        DriverStationSim.setAutonomous(autonomous);
+        DriverStationSim.setEnabled(enabled);
+        DriverStationSim.notifyNewData();
+        for (int i = 0; i < cycles; i++) {
+            SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+        }
+    }
+}